@@ -1,9 +1,12 @@
 package dev.arctic.arcticdeathchest;
 
 import dev.arctic.arcticdeathchest.config.PluginConfig;
+import dev.arctic.arcticdeathchest.data.DeathChestData;
 import dev.arctic.arcticdeathchest.managers.DeathChestManager;
 import dev.arctic.arcticdeathchest.managers.MessageManager;
 import dev.arctic.arcticdeathchest.managers.HologramManager;
+import dev.arctic.arcticdeathchest.managers.VaultManager;
+import dev.arctic.arcticdeathchest.utils.ItemUtils;
 import dev.arctic.arcticdeathchest.utils.VersionUtils;
 import lombok.Getter;
 import lombok.extern.java.Log;
@@ -13,12 +16,26 @@ import org.bukkit.command.CommandSender;
 import org.bukkit.event.EventHandler;
 import org.bukkit.event.EventPriority;
 import org.bukkit.event.Listener;
+import org.bukkit.entity.FallingBlock;
+import org.bukkit.entity.Player;
 import org.bukkit.event.block.BlockBreakEvent;
+import org.bukkit.event.block.BlockExplodeEvent;
+import org.bukkit.event.entity.EntityChangeBlockEvent;
+import org.bukkit.event.entity.EntityExplodeEvent;
 import org.bukkit.event.entity.PlayerDeathEvent;
+import org.bukkit.event.inventory.InventoryCloseEvent;
+import org.bukkit.event.inventory.InventoryMoveItemEvent;
+import org.bukkit.event.inventory.InventoryOpenEvent;
+import org.bukkit.event.world.ChunkLoadEvent;
+import org.bukkit.event.world.ChunkUnloadEvent;
+import org.bukkit.event.world.WorldLoadEvent;
+import org.bukkit.inventory.InventoryHolder;
 import org.bukkit.inventory.ItemStack;
 import org.bukkit.plugin.java.JavaPlugin;
 import org.bukkit.Location;
 import org.bukkit.Bukkit;
+import org.bukkit.block.Block;
+import org.bukkit.block.Chest;
 import org.bukkit.event.block.BlockDamageEvent;
 
 import java.util.ArrayList;
@@ -30,6 +47,9 @@ public final class ArcticDeathChest extends JavaPlugin implements Listener {
     @Getter
     private DeathChestManager deathChestManager;
     
+    @Getter
+    private VaultManager vaultManager;
+    
     @Getter
     private PluginConfig pluginConfig;
     
@@ -61,12 +81,19 @@ public final class ArcticDeathChest extends JavaPlugin implements Listener {
             }
             
             // Initialize managers
+            this.vaultManager = new VaultManager(this);
             this.deathChestManager = new DeathChestManager(this);
             MessageManager.initialize(this);
             HologramManager.initialize(this);
             
             // Register events
             getServer().getPluginManager().registerEvents(this, this);
+            if (isClassPresent("org.bukkit.event.block.BlockExplodeEvent")) {
+                getServer().getPluginManager().registerEvents(new BlockExplodeListener(), this);
+            }
+            
+            // Bring back chests saved before the last shutdown or crash
+            deathChestManager.restoreChests();
             
             log.info("ArcticDeathChest v" + getDescription().getVersion() + " has been enabled!");
             log.info("Configuration loaded - Break time: " + pluginConfig.getChestBreakTime() + "s, " +
@@ -108,16 +135,27 @@ public final class ArcticDeathChest extends JavaPlugin implements Listener {
             // Clear default drops
             event.getDrops().clear();
             
+            // Keep the dropped experience in the chest too, so no orbs are spawned
+            int droppedExp = pluginConfig.isStoreExperience() ? event.getDroppedExp() : 0;
+            
             // Create death chest with the copied drops
             boolean success = deathChestManager.createDeathChest(
                 event.getEntity(),
                 event.getEntity().getLocation(),
-                originalDrops
+                originalDrops,
+                droppedExp
             );
             
             if (success) {
+                if (droppedExp > 0) {
+                    event.setDroppedExp(0);
+                }
+
                 // Send message
                 MessageManager.sendDeathChestMessage(event.getEntity());
+            } else if (vaultManager.isEnabled() && vaultManager.deposit(event.getEntity().getUniqueId(), originalDrops)) {
+                // No chest could be placed; the items wait in the vault instead of spawning as entities
+                log.fine("Could not create death chest for " + event.getEntity().getName() + ", items went to the vault");
             } else {
                 // Restore drops if chest creation failed
                 event.getDrops().addAll(originalDrops);
@@ -131,13 +169,14 @@ public final class ArcticDeathChest extends JavaPlugin implements Listener {
 
     @EventHandler(priority = EventPriority.HIGHEST)
     public void onBlockBreak(BlockBreakEvent event) {
-        if (isShuttingDown || deathChestManager == null || event.getBlock().getType() != Material.CHEST) {
+        if (isShuttingDown || deathChestManager == null) {
             return;
         }
         
         try {
-            Location location = event.getBlock().getLocation();
-            if (deathChestManager.isDeathChest(location)) {
+            // Index lookup first: it usually misses on a single array read, unlike getType()
+            Block block = event.getBlock();
+            if (deathChestManager.isDeathChest(block) && block.getType() == Material.CHEST) {
                 event.setCancelled(true);
                 
                 // Check if player can break this chest
@@ -152,10 +191,23 @@ public final class ArcticDeathChest extends JavaPlugin implements Listener {
                     return;
                 }
                 
+                Location location = block.getLocation();
+                Player player = event.getPlayer();
+                if (pluginConfig.isReturnLootToOwner() &&
+                        player.getUniqueId().equals(deathChestManager.getChestOwner(location))) {
+                    // The owner's items go straight into their inventory instead of being dropped
+                    Bukkit.getScheduler().runTask(this, () -> {
+                        if (!isShuttingDown && !deathChestManager.returnLoot(location.getBlock(), player)) {
+                            MessageManager.sendMessage(player, "&cYour inventory is full, the rest stays in the chest!");
+                        }
+                    });
+                    return;
+                }
+                
                 deathChestManager.cancelBreakTask(location);
                 Bukkit.getScheduler().runTask(this, () -> {
                     if (!isShuttingDown) {
-                        deathChestManager.breakChest(location);
+                        deathChestManager.breakChest(location, player);
                     }
                 });
             }
@@ -166,13 +218,13 @@ public final class ArcticDeathChest extends JavaPlugin implements Listener {
 
     @EventHandler(priority = EventPriority.HIGHEST)
     public void onBlockDamage(BlockDamageEvent event) {
-        if (isShuttingDown || deathChestManager == null || event.getBlock().getType() != Material.CHEST) {
+        if (isShuttingDown || deathChestManager == null) {
             return;
         }
         
         try {
-            Location location = event.getBlock().getLocation();
-            if (deathChestManager.isDeathChest(location)) {
+            Block block = event.getBlock();
+            if (deathChestManager.isDeathChest(block) && block.getType() == Material.CHEST) {
                 if (!pluginConfig.isAllowInstantBreak()) {
                     return;
                 }
@@ -188,6 +240,148 @@ public final class ArcticDeathChest extends JavaPlugin implements Listener {
         }
     }
     
+    @EventHandler(priority = EventPriority.HIGHEST)
+    public void onEntityChangeBlock(EntityChangeBlockEvent event) {
+        if (isShuttingDown || deathChestManager == null || !(event.getEntity() instanceof FallingBlock)) {
+            return;
+        }
+        
+        try {
+            // A tracked falling chest landed - place the real death chest instead of a plain block
+            if (deathChestManager.landFallingChest((FallingBlock) event.getEntity())) {
+                event.setCancelled(true);
+            }
+        } catch (Exception e) {
+            log.warning("Error handling falling chest landing: " + e.getMessage());
+        }
+    }
+    
+    @EventHandler(priority = EventPriority.MONITOR)
+    public void onChunkLoad(ChunkLoadEvent event) {
+        if (isShuttingDown || deathChestManager == null) {
+            return;
+        }
+        
+        try {
+            deathChestManager.onChunkLoad(event.getChunk());
+        } catch (Exception e) {
+            log.warning("Error restoring death chests on chunk load: " + e.getMessage());
+        }
+    }
+    
+    @EventHandler(priority = EventPriority.MONITOR, ignoreCancelled = true)
+    public void onChunkUnload(ChunkUnloadEvent event) {
+        if (isShuttingDown || deathChestManager == null) {
+            return;
+        }
+        
+        try {
+            deathChestManager.onChunkUnload(event.getChunk());
+        } catch (Exception e) {
+            log.warning("Error suspending death chests on chunk unload: " + e.getMessage());
+        }
+    }
+    
+    @EventHandler(priority = EventPriority.MONITOR)
+    public void onWorldLoad(WorldLoadEvent event) {
+        if (isShuttingDown || deathChestManager == null) {
+            return;
+        }
+        
+        try {
+            deathChestManager.onWorldLoad(event.getWorld());
+        } catch (Exception e) {
+            log.warning("Error restoring death chests on world load: " + e.getMessage());
+        }
+    }
+    
+    // HIGHEST so protection plugins have had their say; a cancelled open must not hand out any loot
+    @EventHandler(priority = EventPriority.HIGHEST, ignoreCancelled = true)
+    public void onInventoryOpen(InventoryOpenEvent event) {
+        if (isShuttingDown || deathChestManager == null) {
+            return;
+        }
+        
+        try {
+            InventoryHolder holder = event.getInventory().getHolder();
+            if (holder instanceof Chest && event.getPlayer() instanceof Player) {
+                Block block = ((Chest) holder).getBlock();
+                Player player = (Player) event.getPlayer();
+                
+                // The owner's items go straight into their inventory; only what doesn't fit is shown
+                if (pluginConfig.isReturnLootToOwner() && deathChestManager.returnLoot(block, player)) {
+                    event.setCancelled(true);
+                    return;
+                }
+                
+                // The owner gets the stored experience back; others only get it by breaking the chest
+                deathChestManager.payExperience(block, player);
+            }
+        } catch (Exception e) {
+            log.warning("Error handling inventory open: " + e.getMessage());
+        }
+    }
+    
+    @EventHandler(priority = EventPriority.MONITOR)
+    public void onInventoryClose(InventoryCloseEvent event) {
+        if (isShuttingDown || deathChestManager == null) {
+            return;
+        }
+        
+        try {
+            InventoryHolder holder = event.getInventory().getHolder();
+            if (holder instanceof Chest) {
+                Block block = ((Chest) holder).getBlock();
+                ItemStack[] contents = event.getInventory().getContents();
+                
+                // Persist what was left behind so a restart doesn't bring looted items back
+                deathChestManager.recordContents(block, contents);
+                
+                // A looted chest goes away now instead of waiting for its countdown; checked next tick,
+                // once the closing player no longer counts as a viewer
+                if (ItemUtils.isEmpty(contents) && deathChestManager.isDeathChest(block)) {
+                    Bukkit.getScheduler().runTask(this, () -> {
+                        if (!isShuttingDown) {
+                            deathChestManager.removeIfEmpty(block);
+                        }
+                    });
+                }
+            }
+        } catch (Exception e) {
+            log.warning("Error handling inventory close: " + e.getMessage());
+        }
+    }
+    
+    @EventHandler(priority = EventPriority.HIGHEST, ignoreCancelled = true)
+    public void onInventoryMoveItem(InventoryMoveItemEvent event) {
+        if (isShuttingDown || deathChestManager == null) {
+            return;
+        }
+        
+        try {
+            // Hoppers must not drain or fill death chests: the journal only hears about changes made by players
+            if (deathChestManager.isDeathChestInventory(event.getSource()) ||
+                    deathChestManager.isDeathChestInventory(event.getDestination())) {
+                event.setCancelled(true);
+            }
+        } catch (Exception e) {
+            log.warning("Error handling inventory move: " + e.getMessage());
+        }
+    }
+    
+    @EventHandler(priority = EventPriority.HIGHEST, ignoreCancelled = true)
+    public void onEntityExplode(EntityExplodeEvent event) {
+        if (isShuttingDown || deathChestManager == null) {
+            return;
+        }
+        
+        try {
+            deathChestManager.protectFromExplosion(event.blockList());
+        } catch (Exception e) {
+            log.warning("Error handling entity explosion: " + e.getMessage());
+        }
+    }
+    
     @Override
     public boolean onCommand(CommandSender sender, Command command, String label, String[] args) {
         if (!command.getName().equalsIgnoreCase("arcticdeathchest")) {
@@ -198,6 +392,8 @@ public final class ArcticDeathChest extends JavaPlugin implements Listener {
             sender.sendMessage(MessageManager.colorize("&3&lArcticDeathChest &fv" + getDescription().getVersion()));
             sender.sendMessage(MessageManager.colorize("&7/arcticdeathchest reload &f- Reload configuration"));
             sender.sendMessage(MessageManager.colorize("&7/arcticdeathchest info &f- Show plugin info"));
+            sender.sendMessage(MessageManager.colorize("&7/arcticdeathchest near [radius] &f- List nearby death chests"));
+            sender.sendMessage(MessageManager.colorize("&7/arcticdeathchest vault &f- Claim the items kept in your vault"));
             return true;
         }
         
@@ -217,10 +413,59 @@ public final class ArcticDeathChest extends JavaPlugin implements Listener {
                 sender.sendMessage(MessageManager.colorize("&3&lArcticDeathChest Info"));
                 sender.sendMessage(MessageManager.colorize("&7Version: &f" + getDescription().getVersion()));
                 sender.sendMessage(MessageManager.colorize("&7Active Chests: &f" + deathChestManager.getActiveChestCount()));
+                sender.sendMessage(MessageManager.colorize("&7Chests Awaiting Chunk Load: &f" + deathChestManager.getPendingRestoreCount()));
+                sender.sendMessage(MessageManager.colorize("&7Expired Chests Queued: &f" + deathChestManager.getExpiryBacklog()));
+                sender.sendMessage(MessageManager.colorize("&7Item Drops Queued: &f" + deathChestManager.getPendingDrops()));
                 sender.sendMessage(MessageManager.colorize("&7Server Version: &f" + VersionUtils.getVersionInfo()));
                 sender.sendMessage(MessageManager.colorize("&7Holograms Supported: &f" + VersionUtils.supportsFeature("armor_stands")));
                 break;
                 
+            case "near":
+                if (!sender.hasPermission("arcticdeathchest.admin")) {
+                    sender.sendMessage(MessageManager.colorize("&cYou don't have permission to do this!"));
+                    return true;
+                }
+                
+                if (!(sender instanceof Player)) {
+                    sender.sendMessage(MessageManager.colorize("&cThis command can only be used by players."));
+                    return true;
+                }
+                
+                double radius = 64;
+                if (args.length > 1) {
+                    try {
+                        radius = Math.max(1, Math.min(512, Double.parseDouble(args[1])));
+                    } catch (NumberFormatException e) {
+                        sender.sendMessage(MessageManager.colorize("&cInvalid radius: " + args[1]));
+                        return true;
+                    }
+                }
+                
+                List<DeathChestData> nearby = deathChestManager.getChestsNear(((Player) sender).getLocation(), radius);
+                sender.sendMessage(MessageManager.colorize("&3&lDeath chests within " + (int) radius + " blocks: &f" + nearby.size()));
+                for (DeathChestData chest : nearby) {
+                    Location loc = chest.getLocation();
+                    sender.sendMessage(MessageManager.colorize("&7- &f" + chest.getOwnerName() + " &7at &f" +
+                            loc.getBlockX() + ", " + loc.getBlockY() + ", " + loc.getBlockZ() +
+                            (chest.isPlaced() ? " &7(" + deathChestManager.getRemainingSeconds(chest) + "s left)" : " &7(falling)")));
+                }
+                break;
+                
+            case "vault":
+                if (!sender.hasPermission("arcticdeathchest.vault")) {
+                    sender.sendMessage(MessageManager.colorize("&cYou don't have permission to do this!"));
+                    return true;
+                }
+                
+                if (!(sender instanceof Player)) {
+                    sender.sendMessage(MessageManager.colorize("&cThis command can only be used by players."));
+                    return true;
+                }
+                
+                // Claims stay open with vault.enabled off, so nothing stored earlier is stranded
+                vaultManager.claim((Player) sender);
+                break;
+                
             default:
                 sender.sendMessage(MessageManager.colorize("&cUnknown subcommand. Use /arcticdeathchest for help."));
         }
@@ -239,6 +484,12 @@ public final class ArcticDeathChest extends JavaPlugin implements Listener {
                 deathChestManager = null;
             }
             
+            // After the chest cleanup, which may still put items into vaults
+            if (vaultManager != null) {
+                vaultManager.close();
+                vaultManager = null;
+            }
+            
             // Clean up managers
             HologramManager.cleanup();
             MessageManager.cleanup();
@@ -257,4 +508,32 @@ public final class ArcticDeathChest extends JavaPlugin implements Listener {
     public boolean isShuttingDown() {
         return isShuttingDown;
     }
+    
+    private static boolean isClassPresent(String name) {
+        try {
+            Class.forName(name);
+            return true;
+        } catch (ClassNotFoundException e) {
+            return false;
+        }
+    }
+    
+    /**
+     * Protects death chests from block explosions (beds, respawn anchors). BlockExplodeEvent only
+     * exists on 1.8+, so this handler is kept out of the main listener, which must also register on 1.7.10.
+     */
+    private final class BlockExplodeListener implements Listener {
+        @EventHandler(priority = EventPriority.HIGHEST, ignoreCancelled = true)
+        public void onBlockExplode(BlockExplodeEvent event) {
+            if (isShuttingDown || deathChestManager == null) {
+                return;
+            }
+            
+            try {
+                deathChestManager.protectFromExplosion(event.blockList());
+            } catch (Exception e) {
+                log.warning("Error handling block explosion: " + e.getMessage());
+            }
+        }
+    }
 }
@@ -5,6 +5,7 @@ import lombok.Data;
 import lombok.NonNull;
 import org.bukkit.configuration.file.FileConfiguration;
 
+import java.util.Locale;
 import java.util.logging.Logger;
 
 /**
@@ -20,6 +21,8 @@ public class PluginConfig {
     private final int chestBreakTime;
     private final boolean allowInstantBreak;
     private final boolean announceDeathChest;
+    private final boolean storeExperience;
+    private final boolean returnLootToOwner;
     
     @NonNull
     private final String deathChestMessage;
@@ -41,6 +44,34 @@ public class PluginConfig {
     @NonNull
     private final String hologramSecondLine;
     
+    // Persistence settings
+    private final boolean persistenceEnabled;
+    private final boolean vaultEnabled;
+    
+    // Death loop limiting: at most this many chests per player within the window (0 = no limit)
+    private final int deathLoopMaxChests;
+    private final int deathLoopWindowSeconds;
+    
+    @NonNull
+    private final DeathLoopPolicy deathLoopPolicy;
+    
+    // Caps on live death chests (0 = no limit) and what happens to the oldest one when a cap is reached
+    private final int maxChests;
+    private final int maxChestsPerWorld;
+    private final int maxChestsPerChunk;
+    
+    @NonNull
+    private final EvictionPolicy evictionPolicy;
+    
+    // Countdown behaviour while a chest's chunk is unloaded
+    @NonNull
+    private final UnloadedChunkPolicy unloadedChunkPolicy;
+    
+    // Performance settings
+    private final long breakBudgetNanos;
+    private final int dropsPerTick;
+    private final int dropsPerChestPerTick;
+    
     /**
      * Load configuration from Bukkit FileConfiguration
      * @param config the file configuration
@@ -53,6 +84,8 @@ public class PluginConfig {
         int chestBreakTime = config.getInt("chest-break-time", 10);
         boolean allowInstantBreak = config.getBoolean("allow-instant-break", true);
         boolean announceDeathChest = config.getBoolean("announce-death-chest", true);
+        boolean storeExperience = config.getBoolean("store-experience", true);
+        boolean returnLootToOwner = config.getBoolean("return-loot-to-owner", true);
         String deathChestMessage = config.getString("death-chest-message", 
             "&c%player%'s death chest has been created! It will break in %time% seconds!");
         String chestBreakMessage = config.getString("chest-break-message", "&cDeath chest is breaking!");
@@ -68,6 +101,32 @@ public class PluginConfig {
         String hologramFirstLine = config.getString("hologram.first-line", "&7%player%'s &fLoot");
         String hologramSecondLine = config.getString("hologram.second-line", "&fTime remaining: &c%seconds%s");
         
+        // Persistence settings
+        boolean persistenceEnabled = config.getBoolean("persistence.enabled", true);
+        boolean vaultEnabled = config.getBoolean("vault.enabled", true);
+        
+        // Death loop settings
+        int deathLoopMaxChests = config.getInt("death-loop.max-chests", 0);
+        int deathLoopWindowSeconds = config.getInt("death-loop.window-seconds", 60);
+        String deathLoopPolicyName = config.getString("death-loop.policy", "merge");
+        DeathLoopPolicy deathLoopPolicy = DeathLoopPolicy.fromConfig(deathLoopPolicyName);
+        
+        // Chest limit settings
+        int maxChests = config.getInt("limits.max-chests", 0);
+        int maxChestsPerWorld = config.getInt("limits.max-chests-per-world", 0);
+        int maxChestsPerChunk = config.getInt("limits.max-chests-per-chunk", 0);
+        String evictionPolicyName = config.getString("limits.eviction", "break");
+        EvictionPolicy evictionPolicy = EvictionPolicy.fromConfig(evictionPolicyName);
+        
+        // Unloaded chunk settings
+        String unloadedChunkPolicyName = config.getString("unloaded-chunks.timer-policy", "wall-clock");
+        UnloadedChunkPolicy unloadedChunkPolicy = UnloadedChunkPolicy.fromConfig(unloadedChunkPolicyName);
+        
+        // Performance settings
+        long breakBudgetNanos = config.getLong("performance.break-budget-nanos", 2000000L);
+        int dropsPerTick = config.getInt("performance.drops-per-tick", 32);
+        int dropsPerChestPerTick = config.getInt("performance.drops-per-chest-per-tick", 4);
+        
         // Validate and adjust values
         if (chestBreakTime < 1) {
             if (logger != null) {
@@ -97,11 +156,90 @@ public class PluginConfig {
             hologramLineSpacing = 0.3;
         }
         
+        if (breakBudgetNanos < 0) {
+            if (logger != null) {
+                logger.warning("performance.break-budget-nanos cannot be negative, using default of 2000000");
+            }
+            breakBudgetNanos = 2000000L;
+        }
+        
+        if (dropsPerTick < 1) {
+            if (logger != null) {
+                logger.warning("performance.drops-per-tick must be at least 1, using default of 32");
+            }
+            dropsPerTick = 32;
+        }
+        
+        if (dropsPerChestPerTick < 1) {
+            if (logger != null) {
+                logger.warning("performance.drops-per-chest-per-tick must be at least 1, using default of 4");
+            }
+            dropsPerChestPerTick = 4;
+        }
+        
+        if (deathLoopMaxChests < 0) {
+            if (logger != null) {
+                logger.warning("death-loop.max-chests cannot be negative, using 0 (no limit)");
+            }
+            deathLoopMaxChests = 0;
+        }
+        
+        if (deathLoopWindowSeconds < 1) {
+            if (logger != null) {
+                logger.warning("death-loop.window-seconds must be at least 1, using default of 60");
+            }
+            deathLoopWindowSeconds = 60;
+        }
+        
+        if (deathLoopPolicy == null) {
+            if (logger != null) {
+                logger.warning("death-loop.policy must be merge, no-animation or vault, using default of merge");
+            }
+            deathLoopPolicy = DeathLoopPolicy.MERGE;
+        }
+        
+        if (maxChests < 0) {
+            if (logger != null) {
+                logger.warning("limits.max-chests cannot be negative, using 0 (no limit)");
+            }
+            maxChests = 0;
+        }
+        
+        if (maxChestsPerWorld < 0) {
+            if (logger != null) {
+                logger.warning("limits.max-chests-per-world cannot be negative, using 0 (no limit)");
+            }
+            maxChestsPerWorld = 0;
+        }
+        
+        if (maxChestsPerChunk < 0) {
+            if (logger != null) {
+                logger.warning("limits.max-chests-per-chunk cannot be negative, using 0 (no limit)");
+            }
+            maxChestsPerChunk = 0;
+        }
+        
+        if (evictionPolicy == null) {
+            if (logger != null) {
+                logger.warning("limits.eviction must be break or vault, using default of break");
+            }
+            evictionPolicy = EvictionPolicy.BREAK;
+        }
+        
+        if (unloadedChunkPolicy == null) {
+            if (logger != null) {
+                logger.warning("unloaded-chunks.timer-policy must be freeze or wall-clock, using default of wall-clock");
+            }
+            unloadedChunkPolicy = UnloadedChunkPolicy.WALL_CLOCK;
+        }
+        
         return PluginConfig.builder()
             .prefix(prefix)
             .chestBreakTime(chestBreakTime)
             .allowInstantBreak(allowInstantBreak)
             .announceDeathChest(announceDeathChest)
+            .storeExperience(storeExperience)
+            .returnLootToOwner(returnLootToOwner)
             .deathChestMessage(deathChestMessage)
             .chestBreakMessage(chestBreakMessage)
             .fallingChestEnabled(fallingChestEnabled)
@@ -111,6 +249,19 @@ public class PluginConfig {
             .hologramLineSpacing(hologramLineSpacing)
             .hologramFirstLine(hologramFirstLine)
             .hologramSecondLine(hologramSecondLine)
+            .persistenceEnabled(persistenceEnabled)
+            .vaultEnabled(vaultEnabled)
+            .deathLoopMaxChests(deathLoopMaxChests)
+            .deathLoopWindowSeconds(deathLoopWindowSeconds)
+            .deathLoopPolicy(deathLoopPolicy)
+            .maxChests(maxChests)
+            .maxChestsPerWorld(maxChestsPerWorld)
+            .maxChestsPerChunk(maxChestsPerChunk)
+            .evictionPolicy(evictionPolicy)
+            .unloadedChunkPolicy(unloadedChunkPolicy)
+            .breakBudgetNanos(breakBudgetNanos)
+            .dropsPerTick(dropsPerTick)
+            .dropsPerChestPerTick(dropsPerChestPerTick)
             .build();
     }
     
@@ -124,8 +275,96 @@ public class PluginConfig {
                hologramHeight >= 0 && 
                hologramLineSpacing >= 0 && 
                fallingChestHeight > 0 &&
+               breakBudgetNanos >= 0 &&
+               dropsPerTick > 0 &&
+               dropsPerChestPerTick > 0 &&
+               deathLoopMaxChests >= 0 &&
+               deathLoopWindowSeconds > 0 &&
+               deathLoopPolicy != null &&
+               maxChests >= 0 &&
+               maxChestsPerWorld >= 0 &&
+               maxChestsPerChunk >= 0 &&
+               evictionPolicy != null &&
                deathChestMessage != null &&
                hologramFirstLine != null &&
-               hologramSecondLine != null;
+               hologramSecondLine != null &&
+               unloadedChunkPolicy != null;
+    }
+    
+    /**
+     * What happens to the deaths of a player over the death loop limit
+     */
+    public enum DeathLoopPolicy {
+        /** Drops are merged into the player's last death chest */
+        MERGE,
+        /** A chest is still created, but without falling animation or hologram */
+        NO_ANIMATION,
+        /** Drops go to the player's vault */
+        VAULT;
+        
+        /**
+         * Parse a config value such as {@code merge} or {@code no-animation}
+         * @return the policy, or null if the value is not recognised
+         */
+        public static DeathLoopPolicy fromConfig(String value) {
+            if (value == null) {
+                return null;
+            }
+            try {
+                return valueOf(value.trim().toUpperCase(Locale.ROOT).replace('-', '_'));
+            } catch (IllegalArgumentException e) {
+                return null;
+            }
+        }
+    }
+    
+    /**
+     * What happens to the oldest death chest when a chest limit is reached
+     */
+    public enum EvictionPolicy {
+        /** The chest breaks and drops its items */
+        BREAK,
+        /** The chest's items go to its owner's vault */
+        VAULT;
+        
+        /**
+         * Parse a config value such as {@code break} or {@code vault}
+         * @return the policy, or null if the value is not recognised
+         */
+        public static EvictionPolicy fromConfig(String value) {
+            if (value == null) {
+                return null;
+            }
+            try {
+                return valueOf(value.trim().toUpperCase(Locale.ROOT));
+            } catch (IllegalArgumentException e) {
+                return null;
+            }
+        }
+    }
+    
+    /**
+     * What happens to a chest's countdown while its chunk is unloaded
+     */
+    public enum UnloadedChunkPolicy {
+        /** Countdown pauses and continues where it stopped once the chunk loads */
+        FREEZE,
+        /** Countdown keeps real time; a chest that expired while unloaded breaks as soon as the chunk loads */
+        WALL_CLOCK;
+        
+        /**
+         * Parse a config value such as {@code freeze} or {@code wall-clock}
+         * @return the policy, or null if the value is not recognised
+         */
+        public static UnloadedChunkPolicy fromConfig(String value) {
+            if (value == null) {
+                return null;
+            }
+            try {
+                return valueOf(value.trim().toUpperCase(Locale.ROOT).replace('-', '_'));
+            } catch (IllegalArgumentException e) {
+                return null;
+            }
+        }
     }
 }
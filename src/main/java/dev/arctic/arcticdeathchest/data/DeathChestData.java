@@ -1,57 +1,130 @@
 package dev.arctic.arcticdeathchest.data;
 
+import dev.arctic.arcticdeathchest.utils.TimingWheel;
 import lombok.Builder;
-import lombok.Data;
+import lombok.Getter;
 import lombok.NonNull;
+import lombok.Setter;
 import org.bukkit.Location;
 import org.bukkit.entity.ArmorStand;
+import org.bukkit.entity.FallingBlock;
 import org.bukkit.inventory.ItemStack;
 
-import java.time.LocalDateTime;
 import java.util.List;
 import java.util.UUID;
 
 /**
- * Immutable data class representing a death chest
+ * State of a single death chest, shared by every subsystem that touches it.
+ * Identity fields are fixed at creation; the rest is only changed on the server main thread.
  */
-@Data
-@Builder
+@Getter
 public class DeathChestData {
-    @NonNull
     private final UUID ownerUuid;
-    
-    @NonNull
     private final String ownerName;
-    
-    @NonNull
+
+    /** Block location of the chest (always block-aligned) */
     private final Location location;
-    
-    @NonNull
-    private final List<ItemStack> items;
-    
-    @NonNull
-    private final LocalDateTime createdAt;
-    
+
+    private final long createdAt;
     private final int breakTimeSeconds;
-    
-    private final List<ArmorStand> hologram;
-    
-    private final List<Integer> taskIds;
-    
+
+    /** Created during a death loop: placed without falling animation or hologram */
+    @Setter
+    private boolean minimal;
+
+    /** Current lifecycle stage of the chest */
+    @Setter
+    private State state;
+
+    /** Number of chest blocks stacked from the location upwards; planned at creation, actual once placed */
+    @Setter
+    private int chestCount;
+
+    /** Items waiting to be placed while the chest is falling, or taken out while its chunk is unloaded; null otherwise */
+    @Setter
+    private List<ItemStack> items;
+
+    /** Experience dropped on death, paid out once when the chest is opened or broken */
+    @Setter
+    private int experience;
+
+    /** Falling block entity of the landing animation, if any */
+    @Setter
+    private FallingBlock fallingBlock;
+
+    /** Hologram lines above the chest, if any */
+    @Setter
+    private List<ArmorStand> hologram;
+
+    /** Timer wheel tick at which the current stage ends (landing fallback or chest break) */
+    @Setter
+    private long deadlineTick;
+
+    /** Pending entry on the chest timer wheel */
+    @Setter
+    private TimingWheel.Timeout<DeathChestData> timeout;
+
+    /** Stage ended while the chunk was unloaded; it is finished once the chunk loads again */
+    @Setter
+    private boolean awaitingChunk;
+
+    /** Countdown and hologram are stopped because the chunk is unloaded */
+    @Setter
+    private boolean suspended;
+
+    /** Ticks that were left on the countdown when it was suspended */
+    @Setter
+    private long suspendedRemainingTicks;
+
+    /** Countdown is over and the chest is waiting in the expiry queue to be broken */
+    @Setter
+    private boolean expiryQueued;
+
+    /**
+     * @param createdAt creation time (epoch ms), or 0 for now; set when restoring a persisted chest
+     * @param breakTimeSeconds countdown length once the chest is placed
+     * @param chestCount chest blocks needed for the items, or 0 for a single chest
+     * @param experience experience points kept in the chest
+     */
+    @Builder
+    private DeathChestData(@NonNull UUID ownerUuid, @NonNull String ownerName, @NonNull Location location,
+                           long createdAt, int breakTimeSeconds, int chestCount, List<ItemStack> items,
+                           int experience) {
+        this.ownerUuid = ownerUuid;
+        this.ownerName = ownerName;
+        this.location = location;
+        this.breakTimeSeconds = breakTimeSeconds;
+        this.chestCount = Math.max(1, chestCount);
+        this.items = items;
+        this.experience = Math.max(0, experience);
+        this.createdAt = createdAt > 0 ? createdAt : System.currentTimeMillis();
+        this.state = State.FALLING;
+    }
+
+    /**
+     * Cancel the pending timer wheel entry, if any
+     */
+    public void cancelTimeout() {
+        if (timeout != null) {
+            timeout.cancel();
+            timeout = null;
+        }
+    }
+
     /**
-     * Check if this death chest has expired
-     * @return true if the chest should be broken
+     * Check if the chest block has been placed in the world
      */
-    public boolean isExpired() {
-        return createdAt.plusSeconds(breakTimeSeconds).isBefore(LocalDateTime.now());
+    public boolean isPlaced() {
+        return state == State.PLACED;
     }
-    
+
     /**
-     * Get remaining seconds until break
-     * @return seconds remaining, or 0 if expired
+     * Lifecycle stage of a death chest
      */
-    public long getRemainingSeconds() {
-        long remaining = breakTimeSeconds - java.time.Duration.between(createdAt, LocalDateTime.now()).getSeconds();
-        return Math.max(0, remaining);
+    public enum State {
+        /** Chest is still falling towards its location */
+        FALLING,
+        /** Chest block is placed and counting down */
+        PLACED
     }
-} 
\ No newline at end of file
+}
@@ -1,49 +1,126 @@
 package dev.arctic.arcticdeathchest.managers;
 
 import dev.arctic.arcticdeathchest.ArcticDeathChest;
+import dev.arctic.arcticdeathchest.config.PluginConfig;
+import dev.arctic.arcticdeathchest.data.DeathChestData;
+import dev.arctic.arcticdeathchest.storage.ChestJournal;
+import dev.arctic.arcticdeathchest.storage.ItemCodec;
+import dev.arctic.arcticdeathchest.storage.StoredChest;
+import dev.arctic.arcticdeathchest.utils.BlockIndex;
+import dev.arctic.arcticdeathchest.utils.BlockKey;
+import dev.arctic.arcticdeathchest.utils.ItemUtils;
+import dev.arctic.arcticdeathchest.utils.LongObjectMap;
+import dev.arctic.arcticdeathchest.utils.RateLimiter;
+import dev.arctic.arcticdeathchest.utils.TimingWheel;
 import dev.arctic.arcticdeathchest.utils.VersionUtils;
 import lombok.Getter;
 import lombok.extern.java.Log;
 import org.bukkit.Bukkit;
+import org.bukkit.Chunk;
 import org.bukkit.Location;
 import org.bukkit.Material;
 import org.bukkit.Sound;
+import org.bukkit.World;
 import org.bukkit.block.Block;
 import org.bukkit.block.Chest;
 import org.bukkit.entity.ArmorStand;
+import org.bukkit.entity.ExperienceOrb;
 import org.bukkit.entity.Player;
 import org.bukkit.entity.FallingBlock;
+import org.bukkit.event.inventory.InventoryType;
+import org.bukkit.inventory.Inventory;
+import org.bukkit.inventory.InventoryHolder;
 import org.bukkit.inventory.ItemStack;
 import org.bukkit.Effect;
-import org.bukkit.entity.Item;
 import org.bukkit.scheduler.BukkitTask;
 
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayDeque;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Iterator;
 import java.util.List;
+import java.util.Map;
 import java.util.UUID;
 import java.util.concurrent.ConcurrentHashMap;
-import java.util.concurrent.CopyOnWriteArrayList;
 
 /**
  * Manager for creating, tracking, and cleaning up death chests.
  * Handles falling chest animations, hologram creation, and timed chest destruction.
+ * All chest state lives in one {@link DeathChestData} record per chest.
  */
 @Log
 public class DeathChestManager {
     private final ArcticDeathChest plugin;
     
+    // Every death chest, falling or placed, keyed by its block position
     @Getter
-    private final ConcurrentHashMap<Location, UUID> deathChests;
-    private final ConcurrentHashMap<Location, List<ArmorStand>> chestHolograms;
-    private final ConcurrentHashMap<Location, List<Integer>> breakTasks;
-    private final ConcurrentHashMap<Location, Integer> fallingChestTasks;
-
+    private final BlockIndex<DeathChestData> deathChests;
+    
+    // Extra chests stacked above a death chest whose items need more than one chest, keyed by block position
+    private final BlockIndex<DeathChestData> overflowChests;
+    
+    // Slots of a single chest, and the most chests stacked for one death
+    private static final int CHEST_SLOTS = 27;
+    private static final int MAX_CHEST_BLOCKS = 4;
+    
+    // Secondary index of falling chests by entity ID; landing is reported by EntityChangeBlockEvent
+    private final ConcurrentHashMap<Integer, DeathChestData> fallingChests;
+    
+    // One wheel tick per server tick; entries further out than one lap just wait in their slot
+    private static final int TIMER_WHEEL_SLOTS = 1024;
+    private static final long TICKS_PER_SECOND = 20L;
+    private final TimingWheel<DeathChestData> chestTimers;
+    private final BukkitTask chestTimerTask;
+    
+    // Expired chests waiting to be broken within the per-tick time budget
+    private final ArrayDeque<DeathChestData> expiryQueue = new ArrayDeque<>();
+    private long lastTickNanos = System.nanoTime();
+    
+    // A tick interval above this means the server is behind (MSPT over 50) and breaks get a smaller budget
+    private static final long LAGGING_TICK_NANOS = 60_000_000L;
+    
+    // Item entities of broken chests, released a few per tick
+    private final DropScheduler dropScheduler;
+    
+    // Falling chests are re-checked once per second and given up on after 10 seconds
+    private static final long FALLING_CHEST_CHECK_TICKS = 20L;
+    private static final long FALLING_CHEST_TIMEOUT_TICKS = 200L;
+    
+    // Crash-safe record of live chests so they survive restarts; null when persistence is disabled
+    private static final String JOURNAL_FILE = "chests.journal";
+    private final ChestJournal journal;
+    
+    // How long a chunk unload waits for stashed contents to be fsynced before it gives up and keeps them in the world
+    private static final long STASH_FLUSH_TIMEOUT_MILLIS = 1000L;
+    
+    // Recent deaths per player, and each player's latest chest for merging death loops into
+    private final RateLimiter<UUID> deathLimiter = new RateLimiter<>();
+    private final Map<UUID, DeathChestData> lastChests = new HashMap<>();
+    private static final long DEATH_LOOP_PRUNE_TICKS = 1200L;
+    
+    // Where items go that no chest can hold
+    private final VaultManager vaultManager;
+    
+    // Journaled chests waiting for their chunk to load, by world and chunk key
+    private final Map<UUID, LongObjectMap<List<StoredChest>>> pendingRestores = new HashMap<>();
+    private int pendingRestoreCount = 0;
+    
     public DeathChestManager(ArcticDeathChest plugin) {
         this.plugin = plugin;
-        this.deathChests = new ConcurrentHashMap<>();
-        this.chestHolograms = new ConcurrentHashMap<>();
-        this.breakTasks = new ConcurrentHashMap<>();
-        this.fallingChestTasks = new ConcurrentHashMap<>();
+        this.deathChests = new BlockIndex<>();
+        this.overflowChests = new BlockIndex<>();
+        this.fallingChests = new ConcurrentHashMap<>();
+        this.chestTimers = new TimingWheel<>(TIMER_WHEEL_SLOTS, this::onChestTimer);
+        this.dropScheduler = new DropScheduler(plugin);
+        this.vaultManager = plugin.getVaultManager();
+        this.chestTimerTask = Bukkit.getScheduler().runTaskTimer(plugin, this::tickChestTimers, 1L, 1L);
+        this.journal = plugin.getPluginConfig().isPersistenceEnabled()
+            ? new ChestJournal(new File(plugin.getDataFolder(), JOURNAL_FILE))
+            : null;
         
         log.info("DeathChestManager initialized");
     }
@@ -63,22 +140,17 @@ public class DeathChestManager {
      * @param player The player who died
      * @param location The death location
      * @param items The items to store in the chest
+     * @param experience The experience dropped on death, kept in the chest instead of spawning orbs
      * @return true if chest was created successfully, false otherwise
      */
-    public boolean createDeathChest(Player player, Location location, List<ItemStack> items) {
+    public boolean createDeathChest(Player player, Location location, List<ItemStack> items, int experience) {
         if (player == null || location == null || plugin.isShuttingDown() || plugin.getPluginConfig() == null) {
             return false;
         }
         
-        // Filter out null/air items
-        List<ItemStack> validItems = new ArrayList<>();
-        if (items != null) {
-            for (ItemStack item : items) {
-                if (item != null && item.getType() != Material.AIR) {
-                    validItems.add(item);
-                }
-            }
-        }
+        // Filter out null/air items and merge similar stacks so the chest needs fewer slots
+        List<ItemStack> validItems = items != null ? new ArrayList<>(items) : new ArrayList<ItemStack>();
+        ItemUtils.coalesce(validItems);
         
         // Don't create chest if no items
         if (validItems.isEmpty()) {
@@ -86,6 +158,23 @@ public class DeathChestManager {
             return false;
         }
         
+        // Bound the work a player stuck in a death loop can cause
+        boolean deathLoop = isDeathLoop(player.getUniqueId());
+        if (deathLoop) {
+            PluginConfig.DeathLoopPolicy policy = plugin.getPluginConfig().getDeathLoopPolicy();
+            if (policy == PluginConfig.DeathLoopPolicy.MERGE) {
+                DeathChestData last = lastChests.get(player.getUniqueId());
+                if (last != null && findChest(last.getLocation()) == last && mergeIntoChest(last, validItems, experience)) {
+                    return true;
+                }
+            } else if (policy == PluginConfig.DeathLoopPolicy.VAULT && isVaultEnabled()) {
+                // No chest: the death handler sends the drops to the vault
+                log.fine("Death loop of " + player.getName() + ", sending drops to the vault");
+                return false;
+            }
+            // Otherwise (or when merging is not possible) a chest without animation or hologram is created
+        }
+        
         // Get a safe location for the chest
         Location safeLocation = VersionUtils.getSafeChestLocation(location);
         if (safeLocation == null) {
@@ -99,139 +188,392 @@ public class DeathChestManager {
             return false;
         }
         
+        // Repeated deaths at one spot (such as a death loop) grow the player's chest there instead of
+        // spilling; the safe location of a later death is usually the block right above that chest
+        DeathChestData existing = findChest(normalized);
+        DeathChestData target = existing != null ? existing : findChest(normalized.clone().subtract(0, 1, 0));
+        if (target != null && target.getOwnerUuid().equals(player.getUniqueId()) &&
+                mergeIntoChest(target, validItems, experience)) {
+            lastChests.put(player.getUniqueId(), target);
+            return true;
+        }
+        
         // Check if there's already a chest at this location
-        if (deathChests.containsKey(normalized)) {
+        if (existing != null) {
             log.warning("Death chest already exists at " + normalized);
             return false;
         }
         
+        // Stay within the chest limits, removing the oldest chests if needed
+        if (!makeRoom(normalized)) {
+            log.fine("Death chest limit reached, no chest for " + player.getName());
+            return false;
+        }
+        
+        // Work out once how many stacked chests the items need, limited by the free space above
+        int chestCount = planChestCount(normalized, validItems.size());
+        
+        DeathChestData chest = DeathChestData.builder()
+            .ownerUuid(player.getUniqueId())
+            .ownerName(player.getName())
+            .location(normalized)
+            .breakTimeSeconds(plugin.getPluginConfig().getChestBreakTime())
+            .chestCount(chestCount)
+            .items(validItems)
+            .experience(experience)
+            .build();
+        chest.setMinimal(deathLoop);
+        deathChests.put(normalized, chest);
+        lastChests.put(player.getUniqueId(), chest);
+        journalCreate(chest, validItems, chest.getCreatedAt() + chest.getBreakTimeSeconds() * 1000L);
+        
         try {
             // Create falling chest animation if enabled
-            if (plugin.getPluginConfig().isFallingChestEnabled()) {
-                return createFallingChest(normalized, player, validItems);
+            boolean created;
+            if (plugin.getPluginConfig().isFallingChestEnabled() && !chest.isMinimal()) {
+                created = createFallingChest(chest);
             } else {
-                return createStaticChest(normalized, player, validItems);
+                created = placeChest(chest);
             }
-            
+            if (!created) {
+                releaseChest(chest);
+            }
+            return created;
+        
         } catch (Exception e) {
             log.warning("Error creating death chest for " + player.getName() + ": " + e.getMessage());
             e.printStackTrace();
             // Clean up partial state
-            cleanupChestResources(normalized);
+            releaseChest(chest);
             return false;
         }
     }
-    
+
+    /**
+     * Remove the oldest chests until a new chest at a location fits the global, world and chunk limits
+     * @return false if a limit is reached and no chest can be removed right now
+     */
+    private boolean makeRoom(Location location) {
+        PluginConfig config = plugin.getPluginConfig();
+        World world = location.getWorld();
+        int chunkX = location.getBlockX() >> 4;
+        int chunkZ = location.getBlockZ() >> 4;
+        
+        int maxPerChunk = config.getMaxChestsPerChunk();
+        while (maxPerChunk > 0 && deathChests.getInChunk(world, chunkX, chunkZ).size() >= maxPerChunk) {
+            if (!evictOldest(new ArrayList<>(deathChests.getInChunk(world, chunkX, chunkZ)))) {
+                return false;
+            }
+        }
+        
+        int maxPerWorld = config.getMaxChestsPerWorld();
+        while (maxPerWorld > 0 && deathChests.size(world) >= maxPerWorld) {
+            if (!evictOldest(deathChests.values(world))) {
+                return false;
+            }
+        }
+        
+        int max = config.getMaxChests();
+        while (max > 0 && deathChests.size() >= max) {
+            if (!evictOldest(deathChests.values())) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Remove the oldest of some chests. Only placed chests in loaded chunks qualify, as the others
+     * can't be taken away without loading a chunk or catching a falling block.
+     * @return true if a chest was removed
+     */
+    private boolean evictOldest(List<DeathChestData> chests) {
+        DeathChestData oldest = null;
+        for (DeathChestData chest : chests) {
+            if (chest.isPlaced() && isChunkLoaded(chest.getLocation()) &&
+                    (oldest == null || chest.getCreatedAt() < oldest.getCreatedAt())) {
+                oldest = chest;
+            }
+        }
+        if (oldest == null) {
+            return false;
+        }
+        
+        evictChest(oldest);
+        return deathChests.get(oldest.getLocation()) != oldest;
+    }
+
+    /**
+     * Remove a chest to make room for a new one, breaking it or sending its items to the owner's vault
+     */
+    private void evictChest(DeathChestData chest) {
+        log.fine("Death chest limit reached, removing the chest of " + chest.getOwnerName() + " at " + chest.getLocation());
+        if (plugin.getPluginConfig().getEvictionPolicy() == PluginConfig.EvictionPolicy.VAULT && isVaultEnabled()) {
+            List<Block> blocks = getChestBlocks(chest);
+            List<Inventory> inventories = new ArrayList<>(blocks.size());
+            List<ItemStack> items = new ArrayList<>(blocks.size() * CHEST_SLOTS);
+            for (Block part : blocks) {
+                if (part.getType() == Material.CHEST) {
+                    Inventory inventory = ((Chest) part.getState()).getBlockInventory();
+                    inventories.add(inventory);
+                    Collections.addAll(items, inventory.getContents());
+                }
+            }
+            
+            if (vaultManager.deposit(chest.getOwnerUuid(), items)) {
+                for (Inventory inventory : inventories) {
+                    inventory.clear();
+                }
+                removeEmptyChest(chest, blocks);
+                return;
+            }
+        }
+        breakChest(chest.getLocation());
+    }
+
+    /**
+     * Record a death and check if the player is over the death loop limit
+     */
+    private boolean isDeathLoop(UUID player) {
+        PluginConfig config = plugin.getPluginConfig();
+        int maxChests = config.getDeathLoopMaxChests();
+        return maxChests > 0 && !deathLimiter.tryAcquire(player, System.currentTimeMillis(), maxChests,
+            config.getDeathLoopWindowSeconds() * 1000L);
+    }
+
+    /**
+     * Forget death loop state of players who stopped dying and chests that are gone
+     */
+    private void pruneDeathLoops() {
+        deathLimiter.prune(System.currentTimeMillis(), plugin.getPluginConfig().getDeathLoopWindowSeconds() * 1000L);
+        lastChests.values().removeIf(chest -> findChest(chest.getLocation()) != chest);
+    }
+
+    /**
+     * Add the drops of another death to an existing chest instead of creating a new one.
+     * The chest grows by more chest blocks when needed, its countdown is extended to a full
+     * break time, and its hologram is moved rather than spawned again.
+     * @return true if the items were merged
+     */
+    private boolean mergeIntoChest(DeathChestData chest, List<ItemStack> items, int experience) {
+        Location location = chest.getLocation();
+        if (chest.isSuspended() || chest.isAwaitingChunk() || !isChunkLoaded(location)) {
+            return false;
+        }
+        
+        chest.setExperience(chest.getExperience() + experience);
+        
+        if (!chest.isPlaced()) {
+            // Still falling: the extra items simply land with it
+            List<ItemStack> merged = new ArrayList<>(chest.getItems());
+            merged.addAll(items);
+            ItemUtils.coalesce(merged);
+            chest.setItems(merged);
+            chest.setChestCount(Math.max(chest.getChestCount(), planChestCount(location, merged.size())));
+            journalCreate(chest, merged, chest.getCreatedAt() + chest.getBreakTimeSeconds() * 1000L);
+            return true;
+        }
+        
+        List<Block> blocks = getChestBlocks(chest);
+        List<ItemStack> merged = new ArrayList<>(blocks.size() * CHEST_SLOTS + items.size());
+        for (Block part : blocks) {
+            if (part.getType() == Material.CHEST) {
+                Collections.addAll(merged, ((Chest) part.getState()).getBlockInventory().getContents());
+            }
+        }
+        merged.addAll(items);
+        ItemUtils.coalesce(merged);
+        
+        // Stack more chests on top while the merged items need them and the blocks are free
+        Block base = location.getBlock();
+        int added = 0;
+        int needed = Math.min(MAX_CHEST_BLOCKS, (merged.size() + CHEST_SLOTS - 1) / CHEST_SLOTS);
+        while (blocks.size() < needed && canStackChest(base, blocks.size())) {
+            Block extra = base.getRelative(0, blocks.size(), 0);
+            extra.setType(Material.CHEST);
+            if (extra.getType() != Material.CHEST) {
+                break;
+            }
+            overflowChests.put(extra.getLocation(), chest);
+            blocks.add(extra);
+            added++;
+        }
+        chest.setChestCount(blocks.size());
+        
+        Inventory[] inventories = new Inventory[blocks.size()];
+        int count = 0;
+        for (Block part : blocks) {
+            if (part.getType() == Material.CHEST) {
+                inventories[count] = ((Chest) part.getState()).getBlockInventory();
+                inventories[count++].clear();
+            }
+        }
+        int stored = fillChests(inventories, count, merged);
+        if (stored < merged.size()) {
+            dropOrVault(chest.getOwnerUuid(), location, merged.subList(stored, merged.size()));
+        }
+        
+        // Keep the hologram above the top chest
+        List<ArmorStand> hologram = chest.getHologram();
+        if (hologram != null && added > 0) {
+            for (ArmorStand stand : hologram) {
+                stand.teleport(stand.getLocation().add(0, added, 0));
+            }
+        }
+        
+        long deadline = chestTimers.getTick() + plugin.getPluginConfig().getChestBreakTime() * TICKS_PER_SECOND;
+        if (deadline > chest.getDeadlineTick()) {
+            chest.cancelTimeout();
+            chest.setDeadlineTick(deadline);
+            chest.setExpiryQueued(false);
+            armCountdown(chest);
+        }
+        
+        journalCreate(chest, merged.subList(0, stored),
+            System.currentTimeMillis() + getRemainingSeconds(chest) * 1000L);
+        return true;
+    }
+
+    /**
+     * Get the number of chest blocks for a number of stacks (27 per chest), stopping at the
+     * first block above the location that is not free
+     */
+    private int planChestCount(Location location, int stacks) {
+        int needed = Math.min(MAX_CHEST_BLOCKS, (stacks + CHEST_SLOTS - 1) / CHEST_SLOTS);
+        Block base = location.getBlock();
+        int count = 1;
+        while (count < needed && canStackChest(base, count)) {
+            count++;
+        }
+        return count;
+    }
+
+    /**
+     * Check if an extra chest can go at an offset above a chest without replacing anything.
+     * Only the column above is searched: chests placed side by side would join into double chests,
+     * and keeping the stack in one column lets every other path find its blocks from the chest count alone.
+     */
+    private boolean canStackChest(Block base, int offset) {
+        if (base.getY() + offset >= base.getWorld().getMaxHeight()) {
+            return false;
+        }
+        Block block = base.getRelative(0, offset, 0);
+        return !isDeathChest(block) && VersionUtils.isFreeForChest(block.getType());
+    }
+
     /**
-     * Create a falling chest animation that lands at the target location
+     * Create a falling chest animation that lands at the chest location
      */
-    private boolean createFallingChest(Location location, Player player, List<ItemStack> items) {
+    private boolean createFallingChest(DeathChestData chest) {
         int fallHeight = plugin.getPluginConfig().getFallingChestHeight();
-        Location fallLocation = location.clone().add(0.5, fallHeight, 0.5);
+        Location fallLocation = chest.getLocation().clone().add(0.5, fallHeight, 0.5);
         
         // Create falling block
         FallingBlock fallingChest = VersionUtils.spawnFallingBlock(fallLocation, Material.CHEST);
         if (fallingChest == null) {
             // Fallback to static chest if falling block creation failed
             log.warning("Failed to create falling chest, creating static chest instead");
-            return createStaticChest(location, player, items);
+            return placeChest(chest);
         }
         
         VersionUtils.setFallingBlockNoDrop(fallingChest);
         
-        // Store the player UUID temporarily - actual chest will be registered when it lands
-        final UUID playerUUID = player.getUniqueId();
-        final String playerName = player.getName();
-        final List<ItemStack> itemsCopy = new ArrayList<>(items);
-        final Location targetLoc = location.clone();
+        // The chest is registered already; the real block is placed when the entity lands
+        chest.setFallingBlock(fallingChest);
+        fallingChests.put(fallingChest.getEntityId(), chest);
+        chest.setDeadlineTick(chestTimers.getTick() + FALLING_CHEST_TIMEOUT_TICKS);
+        chest.setTimeout(chestTimers.schedule(chest, FALLING_CHEST_CHECK_TICKS));
         
-        // Create a task to monitor when the chest lands
-        BukkitTask task = Bukkit.getScheduler().runTaskTimer(plugin, new Runnable() {
-            int ticks = 0;
-            
-            @Override
-            public void run() {
-                ticks++;
-                
-                // Safety check - cancel after 10 seconds (200 ticks)
-                if (ticks > 200) {
-                    cleanupFallingChestTask(targetLoc);
-                    if (fallingChest.isValid()) {
-                        fallingChest.remove();
-                    }
-                    // Create chest at target location
-                    Bukkit.getScheduler().runTask(plugin, () -> {
-                        if (!plugin.isShuttingDown()) {
-                            createStaticChestInternal(targetLoc, playerUUID, playerName, itemsCopy);
-                        }
-                    });
-                    return;
-                }
-                
-                // Check if plugin is shutting down
-                if (plugin.isShuttingDown()) {
-                    cleanupFallingChestTask(targetLoc);
-                    if (fallingChest.isValid()) {
-                        fallingChest.remove();
-                    }
-                    return;
-                }
-                
-                // Check if falling block is gone or landed
-                if (!fallingChest.isValid() || fallingChest.isDead() || fallingChest.isOnGround()) {
-                    cleanupFallingChestTask(targetLoc);
-                    if (fallingChest.isValid()) {
-                        fallingChest.remove();
-                    }
-                    // Create chest at target location
-                    createStaticChestInternal(targetLoc, playerUUID, playerName, itemsCopy);
-                    return;
-                }
-                
-                // Check if close enough to target
-                double distance = fallingChest.getLocation().distance(targetLoc.clone().add(0.5, 0.5, 0.5));
-                if (distance < 1.5) {
-                    cleanupFallingChestTask(targetLoc);
-                    fallingChest.remove();
-                    createStaticChestInternal(targetLoc, playerUUID, playerName, itemsCopy);
-                }
-            }
-        }, 1L, 1L);
+        return true;
+    }
+
+    /**
+     * Handle a falling block turning into a block
+     * @param entity the falling block that landed
+     * @return true if it was a tracked death chest (the vanilla block change should be cancelled)
+     */
+    public boolean landFallingChest(FallingBlock entity) {
+        if (fallingChests.isEmpty()) {
+            return false;
+        }
         
-        // Store task ID so we can cancel it if needed
-        fallingChestTasks.put(location, task.getTaskId());
+        DeathChestData chest = fallingChests.get(entity.getEntityId());
+        if (chest == null) {
+            return false;
+        }
         
+        finishFallingChest(chest);
         return true;
     }
-    
+
     /**
-     * Cancel and remove a falling chest monitoring task
+     * Fallback check for a falling chest that has not reported a landing yet.
+     * Catches entities that were removed without placing a block and animations that never finish.
      */
-    private void cleanupFallingChestTask(Location location) {
-        Integer taskId = fallingChestTasks.remove(normalizeLocation(location));
-        if (taskId != null) {
-            try {
-                Bukkit.getScheduler().cancelTask(taskId);
-            } catch (Exception ignored) {}
+    private void onFallingChestCheck(DeathChestData chest) {
+        FallingBlock entity = chest.getFallingBlock();
+        if (entity != null && entity.isValid() && !entity.isDead() && chestTimers.getTick() < chest.getDeadlineTick()) {
+            chest.setTimeout(chestTimers.schedule(chest, FALLING_CHEST_CHECK_TICKS));
+            return;
         }
+        
+        finishFallingChest(chest);
     }
-    
+
+    /**
+     * Remove the falling entity and place the real chest at its target
+     */
+    private void finishFallingChest(DeathChestData chest) {
+        chest.cancelTimeout();
+        removeFallingBlock(chest);
+        
+        if (plugin.isShuttingDown()) {
+            return;
+        }
+        
+        // Never load a chunk just to place the chest; finish it when the chunk loads
+        if (!isChunkLoaded(chest.getLocation())) {
+            deferToChunkLoad(chest);
+            return;
+        }
+        
+        if (!placeChest(chest)) {
+            // The record still holds the items; send them on instead of throwing them away with the record
+            releaseChest(chest);
+            if (chest.getItems() != null) {
+                dropOrVault(chest.getOwnerUuid(), chest.getLocation(), chest.getItems());
+            }
+            giveExperience(chest.getOwnerUuid(), chest.getLocation(), chest.getExperience());
+        }
+    }
+
     /**
-     * Create a static chest (wrapper method for external use)
+     * Remove the falling block entity of a chest and stop tracking it
      */
-    private boolean createStaticChest(Location location, Player player, List<ItemStack> items) {
-        return createStaticChestInternal(location, player.getUniqueId(), player.getName(), items);
+    private void removeFallingBlock(DeathChestData chest) {
+        FallingBlock entity = chest.getFallingBlock();
+        if (entity == null) {
+            return;
+        }
+        
+        fallingChests.remove(entity.getEntityId());
+        chest.setFallingBlock(null);
+        try {
+            if (entity.isValid()) {
+                entity.remove();
+            }
+        } catch (Exception ignored) {}
     }
-    
+
     /**
-     * Internal method to create a static chest with UUID/name instead of Player object
-     * (Player object might not be valid when falling chest lands)
+     * Place the chest block, fill it with the stored items, and start its countdown
      */
-    private boolean createStaticChestInternal(Location location, UUID playerUUID, String playerName, List<ItemStack> items) {
+    private boolean placeChest(DeathChestData record) {
         if (plugin.isShuttingDown()) {
             return false;
         }
         
+        Location location = record.getLocation();
         try {
             Block block = location.getBlock();
             
@@ -249,53 +591,53 @@ public class DeathChestManager {
             }
             
             Chest chest = (Chest) block.getState();
+            List<ItemStack> items = record.getItems() != null ? record.getItems() : Collections.<ItemStack>emptyList();
             
-            // Add items to chest
-            for (ItemStack item : items) {
-                if (item != null && item.getType() != Material.AIR) {
-                    try {
-                        chest.getInventory().addItem(item);
-                    } catch (Exception e) {
-                        log.warning("Failed to add item to death chest: " + e.getMessage());
-                    }
+            // Stack the extra chests the items need; a block taken since creation ends the stack early
+            int needed = Math.max(1, (items.size() + CHEST_SLOTS - 1) / CHEST_SLOTS);
+            int target = Math.min(record.getChestCount(), needed);
+            Inventory[] inventories = new Inventory[target];
+            inventories[0] = chest.getBlockInventory();
+            int chestCount = 1;
+            while (chestCount < target && canStackChest(block, chestCount)) {
+                Block extra = block.getRelative(0, chestCount, 0);
+                extra.setType(Material.CHEST);
+                if (extra.getType() != Material.CHEST) {
+                    break;
                 }
+                overflowChests.put(extra.getLocation(), record);
+                inventories[chestCount++] = ((Chest) extra.getState()).getBlockInventory();
             }
-
-            // Store chest location
-            Location normalized = normalizeLocation(location);
-            deathChests.put(normalized, playerUUID);
             
-            int breakTime = plugin.getPluginConfig().getChestBreakTime();
-
-            // Create hologram if enabled and supported
-            if (plugin.getPluginConfig().isHologramEnabled() && HologramManager.isSupported()) {
-                // Create hologram after a short delay to ensure chest is fully created
-                Bukkit.getScheduler().runTaskLater(plugin, () -> {
-                    if (!plugin.isShuttingDown() && deathChests.containsKey(normalized)) {
-                        try {
-                            // Get the player if online, otherwise create hologram with just name
-                            Player player = Bukkit.getPlayer(playerUUID);
-                            if (player != null) {
-                                List<ArmorStand> hologram = HologramManager.createHologram(normalized, player, breakTime);
-                                if (hologram != null && !hologram.isEmpty()) {
-                                    chestHolograms.put(normalized, hologram);
-                                }
-                            } else {
-                                // Player is offline, skip hologram or create with minimal info
-                                log.fine("Player offline, skipping hologram for " + playerName);
-                            }
-                        } catch (Exception e) {
-                            log.warning("Failed to create hologram for death chest: " + e.getMessage());
-                        }
-                    }
-                }, 2L);
+            // Stacks are merged already, so each one gets its own slot and nothing is left over
+            int capacity = chestCount * CHEST_SLOTS;
+            int stored = fillChests(inventories, chestCount, items);
+            if (items.size() > capacity) {
+                // No room for more chests; vault or drop the rest rather than lose it
+                dropOrVault(record.getOwnerUuid(), location, items.subList(capacity, items.size()));
+            }
+            
+            if (chestCount != record.getChestCount() || items.size() > capacity) {
+                // Journal what was really placed, so a restore clears the right blocks and brings back no dropped items
+                record.setChestCount(chestCount);
+                journalCreate(record, items.subList(0, stored),
+                    System.currentTimeMillis() + record.getBreakTimeSeconds() * 1000L);
             }
             
+            // The chest inventories own the items from now on
+            record.setItems(null);
+            record.setState(DeathChestData.State.PLACED);
+            
+            int breakTime = record.getBreakTimeSeconds();
+            
+            // Create hologram if enabled and supported
+            scheduleHologram(record);
+            
             // Schedule chest break
-            scheduleChestBreak(normalized, breakTime);
+            scheduleChestBreak(record, breakTime);
             
             return true;
-                     
+        
         } catch (Exception e) {
             log.warning("Error creating static chest: " + e.getMessage());
             e.printStackTrace();
@@ -304,109 +646,307 @@ public class DeathChestManager {
     }
 
     /**
-     * Schedule the automatic chest break after the configured time
+     * Put items into chest inventories in order, one stack per slot
+     * @param count the number of inventories to fill
+     * @return the number of items stored; the rest did not fit
+     */
+    private static int fillChests(Inventory[] inventories, int count, List<ItemStack> items) {
+        int stored = Math.min(items.size(), count * CHEST_SLOTS);
+        for (int i = 0; i < stored; i++) {
+            inventories[i / CHEST_SLOTS].setItem(i % CHEST_SLOTS, items.get(i));
+        }
+        return stored;
+    }
+
+    /**
+     * Create the hologram of a placed chest shortly after, once the chest is fully created
      */
-    private void scheduleChestBreak(Location location, int breakTime) {
-        if (location == null || breakTime <= 0 || plugin.isShuttingDown()) {
+    private void scheduleHologram(DeathChestData record) {
+        if (!plugin.getPluginConfig().isHologramEnabled() || !HologramManager.isSupported() || record.isMinimal()) {
             return;
         }
         
-        List<Integer> taskIds = new CopyOnWriteArrayList<>();
-        
-        try {
-            // Update timer every second if holograms are enabled
-            if (plugin.getPluginConfig().isHologramEnabled() && HologramManager.isSupported()) {
-                for (int i = breakTime - 1; i > 0; i--) {
-                    final int seconds = i;
-                    final int delay = (breakTime - i) * 20;
-                    
-                    int taskId = Bukkit.getScheduler().runTaskLater(plugin, () -> {
-                        if (!plugin.isShuttingDown() && deathChests.containsKey(location)) {
-                            try {
-                                List<ArmorStand> hologram = chestHolograms.get(location);
-                                if (hologram != null && !hologram.isEmpty()) {
-                                    HologramManager.updateTimer(hologram, seconds);
-                                }
-                            } catch (Exception e) {
-                                log.warning("Error updating hologram timer: " + e.getMessage());
-                            }
-                        }
-                    }, delay).getTaskId();
-                    taskIds.add(taskId);
+        Location location = record.getLocation();
+        Bukkit.getScheduler().runTaskLater(plugin, () -> {
+            if (plugin.isShuttingDown() || deathChests.get(location) != record || record.isSuspended() ||
+                    record.getHologram() != null || !isChunkLoaded(location)) {
+                return;
+            }
+            
+            try {
+                // Above the top chest of the stack
+                List<ArmorStand> hologram = HologramManager.createHologram(
+                    location.clone().add(0, record.getChestCount() - 1, 0), record.getOwnerName(),
+                    getRemainingSeconds(record));
+                if (hologram != null && !hologram.isEmpty()) {
+                    record.setHologram(hologram);
+                    if (!record.isExpiryQueued() && !record.isAwaitingChunk()) {
+                        // The countdown was armed for the deadline alone; tick it every second from now on
+                        record.cancelTimeout();
+                        armCountdown(record);
+                    }
                 }
+            } catch (Exception e) {
+                log.warning("Failed to create hologram for death chest: " + e.getMessage());
             }
+        }, 2L);
+    }
 
-            // Schedule the final break task
-            int finalTaskId = Bukkit.getScheduler().runTaskLater(plugin, () -> {
-                if (!plugin.isShuttingDown() && deathChests.containsKey(location)) {
-                    breakChest(location);
-                }
-            }, breakTime * 20L).getTaskId();
-            taskIds.add(finalTaskId);
-            
-            breakTasks.put(location, taskIds);
+    /**
+     * Remove the hologram of a chest, if any
+     */
+    private void removeHologram(DeathChestData chest) {
+        List<ArmorStand> hologram = chest.getHologram();
+        if (hologram != null) {
+            HologramManager.removeHologram(hologram);
+            chest.setHologram(null);
+        }
+    }
+
+    /**
+     * Schedule the automatic chest break after the configured time.
+     * The countdown lives on the shared timing wheel: one entry per chest, re-armed
+     * every second while a hologram needs updating, otherwise armed once for the deadline.
+     */
+    private void scheduleChestBreak(DeathChestData chest, int breakTime) {
+        if (breakTime <= 0 || plugin.isShuttingDown()) {
+            return;
+        }
+        
+        try {
+            chest.cancelTimeout();
+            chest.setDeadlineTick(chestTimers.getTick() + breakTime * TICKS_PER_SECOND);
+            armCountdown(chest);
         } catch (Exception e) {
             log.warning("Error scheduling chest break: " + e.getMessage());
-            // Clean up any tasks that were created
-            for (Integer taskId : taskIds) {
-                try {
-                    Bukkit.getScheduler().cancelTask(taskId);
-                } catch (Exception ignored) {}
-            }
         }
     }
 
     /**
-     * Cancel all scheduled break tasks for a chest
+     * Put a countdown back on the wheel for its next hologram update or its deadline.
+     * Only a chest with a hologram ticks every second; any other chest is armed once, for its deadline.
      */
-    public void cancelBreakTask(Location location) {
-        Location normalized = normalizeLocation(location);
-        if (normalized == null) {
+    private void armCountdown(DeathChestData chest) {
+        long remaining = chest.getDeadlineTick() - chestTimers.getTick();
+        boolean tickHologram = chest.getHologram() != null;
+        chest.setTimeout(chestTimers.schedule(chest, tickHologram ? Math.min(TICKS_PER_SECOND, remaining) : remaining));
+    }
+
+    /**
+     * Get the whole seconds left on a chest's countdown (rounded up)
+     */
+    public int getRemainingSeconds(DeathChestData chest) {
+        return (int) ((getRemainingTicks(chest) + TICKS_PER_SECOND - 1) / TICKS_PER_SECOND);
+    }
+
+    private long getRemainingTicks(DeathChestData chest) {
+        long remaining = chest.isSuspended() && isFreezePolicy()
+            ? chest.getSuspendedRemainingTicks()
+            : chest.getDeadlineTick() - chestTimers.getTick();
+        return Math.max(0L, remaining);
+    }
+
+    /**
+     * Journal the wall-clock time at which a chest whose countdown is running breaks
+     */
+    private void journalExpiry(DeathChestData chest) {
+        Location location = chest.getLocation();
+        journal.logExpiry(location.getWorld().getUID(), BlockKey.of(location),
+            System.currentTimeMillis() + getRemainingTicks(chest) * 1000L / TICKS_PER_SECOND);
+    }
+
+    /**
+     * Journal a chest's countdown as frozen at its remaining time, so neither downtime nor the wait
+     * for its chunk counts against it
+     */
+    private void journalFreeze(DeathChestData chest) {
+        Location location = chest.getLocation();
+        journal.logFreeze(location.getWorld().getUID(), BlockKey.of(location),
+            getRemainingTicks(chest) * 1000L / TICKS_PER_SECOND);
+    }
+
+    /**
+     * Called by the timing wheel when a chest's timer entry is due
+     */
+    private void onChestTimer(DeathChestData chest) {
+        chest.setTimeout(null);
+        if (plugin.isShuttingDown() || deathChests.get(chest.getLocation()) != chest) {
             return;
         }
         
-        List<Integer> taskIds = breakTasks.remove(normalized);
-        if (taskIds != null) {
-            for (Integer taskId : taskIds) {
-                try {
-                    if (taskId != null) {
-                        Bukkit.getScheduler().cancelTask(taskId);
-                    }
-                } catch (Exception e) {
-                    log.warning("Error cancelling break task: " + e.getMessage());
-                }
-            }
+        if (chest.isPlaced()) {
+            onCountdownTick(chest);
+        } else {
+            onFallingChestCheck(chest);
         }
     }
 
     /**
-     * Break a death chest and drop its contents
+     * Update the hologram countdown, or break the chest once its deadline is reached
      */
-    public void breakChest(Location location) {
-        Location normalized = normalizeLocation(location);
-        if (normalized == null || !deathChests.containsKey(normalized)) {
+    private void onCountdownTick(DeathChestData chest) {
+        boolean expired = chestTimers.getTick() >= chest.getDeadlineTick();
+        
+        try {
+            List<ArmorStand> hologram = chest.getHologram();
+            if (hologram != null && !hologram.isEmpty()) {
+                HologramManager.updateTimer(hologram, getRemainingSeconds(chest));
+            }
+        } catch (Exception e) {
+            log.warning("Error updating hologram timer: " + e.getMessage());
+        }
+        
+        if (expired) {
+            // Breaking is expensive; expired chests wait their turn in the tick-budgeted queue
+            chest.setExpiryQueued(true);
+            expiryQueue.add(chest);
             return;
         }
         
-        // Get player UUID before cleanup
-        UUID playerUUID = deathChests.get(normalized);
+        armCountdown(chest);
+    }
+
+    /**
+     * Advance the shared chest timer wheel and work off expired chests (runs once per server tick)
+     */
+    private void tickChestTimers() {
+        long now = System.nanoTime();
+        long tickInterval = now - lastTickNanos;
+        lastTickNanos = now;
         
         try {
-            Block block = normalized.getBlock();
-            if (block.getType() != Material.CHEST) {
-                // Chest was already broken somehow, just clean up tracking
-                cleanupChestResources(normalized);
-                return;
+            chestTimers.advance();
+        } catch (Exception e) {
+            log.warning("Error processing death chest timers: " + e.getMessage());
+        }
+        
+        try {
+            processExpiryQueue(tickInterval);
+        } catch (Exception e) {
+            log.warning("Error breaking expired death chests: " + e.getMessage());
+        }
+        
+        try {
+            dropScheduler.tick();
+        } catch (Exception e) {
+            log.warning("Error dropping death chest items: " + e.getMessage());
+        }
+        
+        if (chestTimers.getTick() % DEATH_LOOP_PRUNE_TICKS == 0) {
+            pruneDeathLoops();
+        }
+    }
+
+    /**
+     * Break queued chests until this tick's time budget is used up; the rest waits for later ticks.
+     * At least one chest is broken per tick so the backlog always drains.
+     * @param tickInterval nanoseconds since the previous tick, used to back off while the server is lagging
+     */
+    private void processExpiryQueue(long tickInterval) {
+        if (expiryQueue.isEmpty()) {
+            return;
+        }
+        
+        long budget = plugin.getPluginConfig().getBreakBudgetNanos();
+        if (tickInterval > LAGGING_TICK_NANOS) {
+            budget /= 4;
+        }
+        
+        long start = System.nanoTime();
+        do {
+            DeathChestData chest = expiryQueue.poll();
+            chest.setExpiryQueued(false);
+            // Skip chests that were broken, replaced or given more time while waiting
+            if (deathChests.get(chest.getLocation()) == chest && chestTimers.getTick() >= chest.getDeadlineTick()) {
+                breakChest(chest.getLocation());
+            }
+        } while (!expiryQueue.isEmpty() && System.nanoTime() - start < budget);
+    }
+
+    /**
+     * Get the number of expired chests waiting to be broken
+     */
+    public int getExpiryBacklog() {
+        return expiryQueue.size();
+    }
+
+    /**
+     * Get the number of item entities from broken chests still waiting to be dropped
+     */
+    public int getPendingDrops() {
+        return dropScheduler.getPendingDrops();
+    }
+
+    /**
+     * Cancel the scheduled break countdown for a chest
+     */
+    public void cancelBreakTask(Location location) {
+        DeathChestData chest = findChest(location);
+        if (chest != null) {
+            chest.cancelTimeout();
+        }
+    }
+
+    /**
+     * Break a death chest, including any chests stacked on it, and drop its contents
+     * @param location the location of any block of the chest
+     */
+    public void breakChest(Location location) {
+        breakChest(location, null);
+    }
+
+    /**
+     * Break a death chest, including any chests stacked on it, and drop its contents
+     * @param location the location of any block of the chest
+     * @param breaker the player breaking the chest, who gets its experience; null when it breaks on its own
+     */
+    public void breakChest(Location location, Player breaker) {
+        DeathChestData record = findChest(location);
+        if (record == null) {
+            return;
+        }
+        
+        // Get player UUID before cleanup
+        UUID playerUUID = record.getOwnerUuid();
+        Location normalized = record.getLocation();
+        
+        // Never load a chunk just to break the chest; it breaks as soon as the chunk loads
+        if (!isChunkLoaded(normalized)) {
+            record.cancelTimeout();
+            if (record.isPlaced() && record.getItems() != null && isVaultEnabled() &&
+                    vaultManager.deposit(playerUUID, record.getItems())) {
+                // The contents were taken out when the chunk unloaded; they are in the vault now,
+                // and the empty chest is removed once the chunk loads
+                record.setItems(null);
+                if (journal != null) {
+                    journalItems(record, Collections.<ItemStack>emptyList());
+                }
+            }
+            deferToChunkLoad(record);
+            return;
+        }
+        
+        try {
+            Block block = normalized.getBlock();
+            if (!record.isPlaced() || block.getType() != Material.CHEST) {
+                // Chest was already broken somehow, just clean up tracking
+                releaseChest(record);
+                return;
             }
             
-            Chest chest = (Chest) block.getState();
-            
-            // 1. Get and clear items
-            ItemStack[] items = chest.getInventory().getContents();
-            chest.getInventory().clear();
+            // 1. Get and clear items of every chest in the stack
+            List<Block> blocks = getChestBlocks(record);
+            List<ItemStack> items = new ArrayList<>(blocks.size() * CHEST_SLOTS);
+            for (Block part : blocks) {
+                if (part.getType() == Material.CHEST) {
+                    Inventory inventory = ((Chest) part.getState()).getBlockInventory();
+                    Collections.addAll(items, inventory.getContents());
+                    inventory.clear();
+                }
+            }
             
             // 2. Clean up resources first (tasks, holograms, tracking)
-            cleanupChestResources(normalized);
+            releaseChest(record);
             
             // 3. Break chest with visual effect
             try {
@@ -416,20 +956,23 @@ public class DeathChestManager {
                 log.fine("Could not play smoke effect: " + e.getMessage());
             }
             
-            block.setType(Material.AIR);
+            for (Block part : blocks) {
+                if (part.getType() == Material.CHEST) {
+                    part.setType(Material.AIR);
+                }
+            }
             
-            // 4. Drop items naturally
-            for (ItemStack item : items) {
-                if (item != null && item.getType() != Material.AIR) {
-                    try {
-                        Item droppedItem = normalized.getWorld().dropItemNaturally(
-                            normalized.clone().add(0.5, 0.5, 0.5), item);
-                        // Reduce velocity for a nicer effect
-                        droppedItem.setVelocity(droppedItem.getVelocity().multiply(0.3));
-                    } catch (Exception e) {
-                        log.warning("Error dropping item from death chest: " + e.getMessage());
-                    }
+            // 4. Send the items to the owner's vault, or drop them naturally, a few per tick
+            dropOrVault(playerUUID, normalized, items);
+            
+            // Hand the stored experience to whoever broke the chest, otherwise drop it as one orb
+            if (record.getExperience() > 0) {
+                if (breaker != null && breaker.isOnline()) {
+                    breaker.giveExp(record.getExperience());
+                } else {
+                    dropExperience(normalized, record.getExperience());
                 }
+                record.setExperience(0);
             }
             
             // 5. Play break sound
@@ -442,45 +985,391 @@ public class DeathChestManager {
                     MessageManager.sendBreakMessage(player);
                 }
             }
-                     
+        
         } catch (Exception e) {
             log.warning("Error breaking death chest: " + e.getMessage());
             e.printStackTrace();
             // Ensure cleanup happens even if breaking fails
-            cleanupChestResources(normalized);
+            releaseChest(record);
         }
     }
-    
+
     /**
-     * Clean up all resources associated with a death chest
+     * Give the experience stored in a death chest back to its owner, once
+     * @param block the chest block (the chest itself or one stacked on it)
+     * @param player the player who opened the chest; nothing happens unless it is the owner
      */
-    private void cleanupChestResources(Location location) {
-        if (location == null) {
+    public void payExperience(Block block, Player player) {
+        DeathChestData chest = findChest(block);
+        if (chest == null || !chest.isPlaced() || chest.getExperience() <= 0 ||
+                !player.getUniqueId().equals(chest.getOwnerUuid())) {
             return;
         }
         
-        try {
-            // Cancel any break tasks
-            cancelBreakTask(location);
-            
-            // Cancel any falling chest task
-            cleanupFallingChestTask(location);
+        player.giveExp(chest.getExperience());
+        chest.setExperience(0);
+        if (journal != null) {
+            Location location = chest.getLocation();
+            journal.logExperience(location.getWorld().getUID(), BlockKey.of(location), 0);
+        }
+    }
+
+    /**
+     * Move the contents of a death chest straight into its owner's inventory, leaving what doesn't fit
+     * in the chest. A chest emptied this way is removed without dropping anything.
+     * @param block the chest block (the chest itself or one stacked on it)
+     * @param player the player opening or breaking the chest; nothing happens unless it is the owner
+     * @return true if the chest was emptied and removed
+     */
+    public boolean returnLoot(Block block, Player player) {
+        DeathChestData chest = findChest(block);
+        if (chest == null || !chest.isPlaced() || !player.getUniqueId().equals(chest.getOwnerUuid())) {
+            return false;
+        }
+        
+        payExperience(block, player);
+        
+        List<Block> blocks = getChestBlocks(chest);
+        boolean empty = true;
+        for (Block part : blocks) {
+            if (part.getType() != Material.CHEST) {
+                continue;
+            }
             
-            // Remove and clean up hologram
-            List<ArmorStand> hologram = chestHolograms.remove(location);
-            if (hologram != null) {
-                HologramManager.removeHologram(hologram);
-                HologramManager.untrackHologram(location);
+            Inventory inventory = ((Chest) part.getState()).getBlockInventory();
+            ItemStack[] contents = inventory.getContents();
+            for (int slot = 0; slot < contents.length; slot++) {
+                ItemStack item = contents[slot];
+                if (item == null || item.getType() == Material.AIR) {
+                    continue;
+                }
+                
+                Map<Integer, ItemStack> leftover = player.getInventory().addItem(item.clone());
+                if (leftover.isEmpty()) {
+                    inventory.setItem(slot, null);
+                } else {
+                    inventory.setItem(slot, leftover.values().iterator().next());
+                    empty = false;
+                }
+            }
+        }
+        
+        if (!empty) {
+            journalContents(chest, blocks);
+            return false;
+        }
+        
+        removeEmptyChest(chest, blocks);
+        return true;
+    }
+
+    /**
+     * Remove a death chest as soon as it has been emptied instead of keeping it until its countdown ends.
+     * Chests that still hold items or that someone is looking into are left alone.
+     * @param block the chest block (the chest itself or one stacked on it)
+     * @return true if the chest was empty and has been removed
+     */
+    public boolean removeIfEmpty(Block block) {
+        DeathChestData chest = findChest(block);
+        if (chest == null || !chest.isPlaced() || !isChunkLoaded(chest.getLocation())) {
+            return false;
+        }
+        
+        List<Block> blocks = getChestBlocks(chest);
+        for (Block part : blocks) {
+            if (part.getType() != Material.CHEST) {
+                continue;
+            }
+            Inventory inventory = ((Chest) part.getState()).getBlockInventory();
+            if (!inventory.getViewers().isEmpty() || !ItemUtils.isEmpty(inventory.getContents())) {
+                return false;
             }
+        }
+        
+        removeEmptyChest(chest, blocks);
+        return true;
+    }
+
+    /**
+     * Release an emptied chest and take its blocks away; nothing is dropped but unclaimed experience
+     */
+    private void removeEmptyChest(DeathChestData chest, List<Block> blocks) {
+        releaseChest(chest);
+        for (Block part : blocks) {
+            if (part.getType() == Material.CHEST) {
+                part.setType(Material.AIR);
+            }
+        }
+        
+        if (chest.getExperience() > 0) {
+            dropExperience(chest.getLocation(), chest.getExperience());
+            chest.setExperience(0);
+        }
+        playBreakSound(chest.getLocation());
+    }
+
+    /**
+     * Pay the experience of a chest that could not be placed to its owner, or drop it if they are offline
+     */
+    private void giveExperience(UUID owner, Location location, int experience) {
+        if (experience <= 0) {
+            return;
+        }
+        
+        Player player = Bukkit.getPlayer(owner);
+        if (player != null && player.isOnline()) {
+            player.giveExp(experience);
+        } else {
+            dropExperience(location, experience);
+        }
+    }
+
+    /**
+     * Drop experience as a single orb rather than the spread of small orbs vanilla would spawn
+     */
+    private void dropExperience(Location location, int experience) {
+        try {
+            ExperienceOrb orb = location.getWorld().spawn(location.clone().add(0.5, 0.5, 0.5), ExperienceOrb.class);
+            orb.setExperience(experience);
+        } catch (Exception e) {
+            log.warning("Error dropping experience from death chest: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Release all resources associated with a death chest and stop tracking it.
+     * During shutdown the journal entry is kept so the chest is restored on the next start.
+     */
+    private void releaseChest(DeathChestData chest) {
+        if (chest == null) {
+            return;
+        }
+        
+        try {
+            // Cancel any pending timer
+            chest.cancelTimeout();
+            
+            // Remove any falling chest entity
+            removeFallingBlock(chest);
             
-            // Remove from tracking
-            deathChests.remove(location);
+            // Remove hologram
+            removeHologram(chest);
             
+            // Remove from tracking (only if this record still owns the position); works on locations
+            // rather than blocks, as getting a block would load the chunk
+            if (chest.getChestCount() > 1) {
+                Location extra = chest.getLocation().clone();
+                for (int i = 1; i < chest.getChestCount(); i++) {
+                    extra.add(0, 1, 0);
+                    if (overflowChests.get(extra) == chest) {
+                        overflowChests.remove(extra);
+                    }
+                }
+            }
+            if (deathChests.get(chest.getLocation()) == chest) {
+                deathChests.remove(chest.getLocation());
+                if (journal != null && !plugin.isShuttingDown()) {
+                    journal.logRemove(chest.getLocation().getWorld().getUID(), BlockKey.of(chest.getLocation()));
+                }
+            }
+        
         } catch (Exception e) {
             log.warning("Error during chest resource cleanup: " + e.getMessage());
         }
     }
 
+    /**
+     * Get the chest blocks of a placed death chest, bottom first (its chunk must be loaded)
+     */
+    private List<Block> getChestBlocks(DeathChestData chest) {
+        Block base = chest.getLocation().getBlock();
+        List<Block> blocks = new ArrayList<>(chest.getChestCount());
+        blocks.add(base);
+        for (int i = 1; i < chest.getChestCount(); i++) {
+            Block extra = base.getRelative(0, i, 0);
+            if (overflowChests.get(extra) == chest) {
+                blocks.add(extra);
+            }
+        }
+        return blocks;
+    }
+
+    /**
+     * Find the death chest a location belongs to, whether it is the chest itself or one stacked on it
+     */
+    private DeathChestData findChest(Location location) {
+        DeathChestData chest = deathChests.get(location);
+        return chest != null || overflowChests.isEmpty() ? chest : overflowChests.get(location);
+    }
+
+    private DeathChestData findChest(Block block) {
+        DeathChestData chest = deathChests.get(block);
+        return chest != null || overflowChests.isEmpty() ? chest : overflowChests.get(block);
+    }
+
+    /**
+     * Check if the chunk of a location is loaded, without loading it
+     */
+    private boolean isChunkLoaded(Location location) {
+        World world = location.getWorld();
+        return world != null && world.isChunkLoaded(location.getBlockX() >> 4, location.getBlockZ() >> 4);
+    }
+
+    /**
+     * Park a chest whose landing or break came due in an unloaded chunk until the chunk loads
+     */
+    private void deferToChunkLoad(DeathChestData chest) {
+        chest.setAwaitingChunk(true);
+    }
+
+    private boolean isVaultEnabled() {
+        return vaultManager != null && vaultManager.isEnabled();
+    }
+
+    private boolean isFreezePolicy() {
+        return plugin.getPluginConfig().getUnloadedChunkPolicy() == PluginConfig.UnloadedChunkPolicy.FREEZE;
+    }
+
+    /**
+     * Stop all timer and hologram work for the chests of a chunk that is unloading.
+     * The countdown resumes on the next load, frozen or caught up depending on the configured policy.
+     */
+    public void onChunkUnload(Chunk chunk) {
+        List<DeathChestData> chests = deathChests.getInChunk(chunk);
+        if (chests.isEmpty()) {
+            return;
+        }
+        
+        List<DeathChestData> stashed = null;
+        for (DeathChestData chest : chests) {
+            if (!chest.isPlaced() || chest.isSuspended() || chest.isAwaitingChunk() || chest.isExpiryQueued()) {
+                continue;
+            }
+            
+            long remaining = Math.max(0L, chest.getDeadlineTick() - chestTimers.getTick());
+            chest.cancelTimeout();
+            chest.setSuspended(true);
+            chest.setSuspendedRemainingTicks(remaining);
+            
+            // Remove the stands before the chunk is saved so they don't come back as stale copies
+            removeHologram(chest);
+            
+            if (journal != null && isFreezePolicy()) {
+                // Should the server stop before the chunk loads again, the countdown stays frozen
+                journalFreeze(chest);
+            }
+            
+            if (journal != null && isVaultEnabled() && !isFreezePolicy() && stashContents(chest)) {
+                // The chest can expire before the chunk loads again; keep one timer entry for the
+                // deadline and the contents at hand, so they can go to the vault without loading the chunk.
+                // Only with the journal on: it keeps the stashed contents safe from a crash
+                if (stashed == null) {
+                    stashed = new ArrayList<>();
+                }
+                stashed.add(chest);
+                chest.setTimeout(chestTimers.schedule(chest, Math.max(1L, remaining)));
+            }
+        }
+        
+        if (stashed != null) {
+            finishStash(stashed);
+        }
+    }
+
+    /**
+     * Copy the contents of a chest whose chunk is unloading into its record and journal them as stashed.
+     * The chest blocks keep their items until {@link #finishStash} knows the journal record is durable.
+     * @return true if the stash record was queued
+     */
+    private boolean stashContents(DeathChestData chest) {
+        List<Block> blocks = getChestBlocks(chest);
+        List<ItemStack> items = new ArrayList<>(blocks.size() * CHEST_SLOTS);
+        for (Block part : blocks) {
+            if (part.getType() == Material.CHEST) {
+                Collections.addAll(items, ((Chest) part.getState()).getBlockInventory().getContents());
+            }
+        }
+        ItemUtils.coalesce(items);
+        chest.setItems(items);
+        if (!journalItems(chest, items)) {
+            chest.setItems(null);
+            return false;
+        }
+        return true;
+    }
+
+    /**
+     * Empty the chest blocks of stashed chests once the journal holds their contents on disk.
+     * If the journal can't confirm that in time, the stash is undone and the items stay in the world,
+     * so a crash before the next fsync can't lose them; those chests then wait for their chunk to load.
+     */
+    private void finishStash(List<DeathChestData> chests) {
+        boolean durable = journal.flush(STASH_FLUSH_TIMEOUT_MILLIS);
+        if (!durable) {
+            log.warning("Death chest journal did not confirm a write in time, keeping " + chests.size() +
+                " unloading chests in the world");
+        }
+        
+        for (DeathChestData chest : chests) {
+            List<Block> blocks = getChestBlocks(chest);
+            if (!durable) {
+                chest.cancelTimeout();
+                chest.setItems(null);
+                journalContents(chest, blocks);
+                continue;
+            }
+            for (Block part : blocks) {
+                if (part.getType() == Material.CHEST) {
+                    ((Chest) part.getState()).getBlockInventory().clear();
+                }
+            }
+        }
+    }
+
+    /**
+     * Put the stashed contents of a chest back once its chunk has loaded
+     */
+    private void unstashContents(DeathChestData chest) {
+        List<ItemStack> items = chest.getItems();
+        chest.setItems(null);
+        
+        List<Block> blocks = getChestBlocks(chest);
+        Inventory[] inventories = new Inventory[blocks.size()];
+        int count = 0;
+        for (Block part : blocks) {
+            if (part.getType() == Material.CHEST) {
+                inventories[count++] = ((Chest) part.getState()).getBlockInventory();
+            }
+        }
+        
+        int stored = fillChests(inventories, count, items);
+        if (stored < items.size()) {
+            // The chest was changed while unloaded; don't lose what no longer fits
+            dropOrVault(chest.getOwnerUuid(), chest.getLocation(), items.subList(stored, items.size()));
+        }
+        
+        // The items are in the chest blocks again
+        journalContents(chest, blocks);
+    }
+
+    /**
+     * Restart the countdown and hologram of a chest whose chunk loaded again
+     */
+    private void resumeCountdown(DeathChestData chest) {
+        chest.setSuspended(false);
+        if (isFreezePolicy()) {
+            chest.setDeadlineTick(chestTimers.getTick() + chest.getSuspendedRemainingTicks());
+            if (journal != null) {
+                journalExpiry(chest);
+            }
+        }
+        
+        // A deadline that passed while unloaded fires on the next tick and breaks the chest
+        chest.cancelTimeout();
+        armCountdown(chest);
+        scheduleHologram(chest);
+    }
+
     /**
      * Play the chest break sound
      */
@@ -506,61 +1395,466 @@ public class DeathChestManager {
         try {
             log.info("Cleaning up " + deathChests.size() + " death chests...");
             
-            // Cancel all falling chest tasks first
-            for (Integer taskId : fallingChestTasks.values()) {
-                try {
-                    Bukkit.getScheduler().cancelTask(taskId);
-                } catch (Exception ignored) {}
-            }
-            fallingChestTasks.clear();
+            // Stop the shared timer driver before breaking chests
+            chestTimerTask.cancel();
+            chestTimers.clear();
             
-            // Create a copy of locations to avoid concurrent modification
-            List<Location> locations = new ArrayList<>(deathChests.keySet());
+            // Snapshot the records to avoid concurrent modification
+            List<DeathChestData> chests = deathChests.values();
             
-            for (Location loc : locations) {
+            for (DeathChestData chest : chests) {
+                if (journal != null && chest.isPlaced() && chest.getItems() == null && isChunkLoaded(chest.getLocation())) {
+                    // Hoppers and other plugins can change a chest without an inventory close; journal what
+                    // the chest really holds, or a restart would bring back items that left it
+                    journalContents(chest, getChestBlocks(chest));
+                }
+                
+                if (journal != null && chest.isPlaced() && isFreezePolicy()) {
+                    // Carry the frozen countdown over the restart instead of the original deadline
+                    journalFreeze(chest);
+                }
+                
+                if (journal != null || !isChunkLoaded(chest.getLocation())) {
+                    // Persisted chests stay in the world and are restored from the journal on the next start.
+                    // Without persistence, chests in unloaded chunks are left as plain chests rather than
+                    // loading their chunk during shutdown.
+                    releaseChest(chest);
+                    continue;
+                }
+                
                 try {
-                    Block block = loc.getBlock();
-                    if (block.getType() == Material.CHEST) {
-                        breakChest(loc);
+                    Block block = chest.getLocation().getBlock();
+                    if (chest.isPlaced() && block.getType() == Material.CHEST) {
+                        breakChest(chest.getLocation());
                     } else {
-                        // Just clean up resources if chest is already gone
-                        cleanupChestResources(loc);
+                        // Just clean up resources if chest is already gone or still falling
+                        releaseChest(chest);
                     }
                 } catch (Exception e) {
-                    log.warning("Error cleaning up death chest at " + loc + ": " + e.getMessage());
+                    log.warning("Error cleaning up death chest at " + chest.getLocation() + ": " + e.getMessage());
                     // Force cleanup even if breaking fails
-                    cleanupChestResources(loc);
+                    releaseChest(chest);
                 }
             }
             
+            // No ticks are left to spread the drops over; drops in unloaded chunks go to vaults
+            dropScheduler.flush();
+            
             // Force clear all collections
             deathChests.clear();
-            chestHolograms.clear();
-            breakTasks.clear();
-            fallingChestTasks.clear();
+            overflowChests.clear();
+            fallingChests.clear();
+            expiryQueue.clear();
+            lastChests.clear();
+            pendingRestores.clear();
+            pendingRestoreCount = 0;
             
-            log.info("Death chest cleanup completed.");
+            if (journal != null) {
+                journal.close();
+            }
             
+            log.info("Death chest cleanup completed.");
+        
         } catch (Exception e) {
             log.severe("Error during death chest manager cleanup: " + e.getMessage());
             e.printStackTrace();
             
             // Force clear collections as last resort
             try {
+                chestTimerTask.cancel();
+                chestTimers.clear();
                 deathChests.clear();
-                chestHolograms.clear();
-                breakTasks.clear();
-                fallingChestTasks.clear();
+                overflowChests.clear();
+                fallingChests.clear();
+                if (journal != null) {
+                    journal.close();
+                }
             } catch (Exception ignored) {}
         }
     }
 
+    /**
+     * Replay the chest journal off the main thread. Chests that were live at the last
+     * shutdown or crash are kept as compact pending entries and only put back into the
+     * world once their chunk is loaded.
+     */
+    public void restoreChests() {
+        if (journal == null) {
+            return;
+        }
+        
+        Bukkit.getScheduler().runTaskAsynchronously(plugin, () -> {
+            List<StoredChest> stored;
+            try {
+                stored = journal.open();
+            } catch (IOException e) {
+                log.severe("Could not open death chest journal, chests will not be saved: " + e.getMessage());
+                return;
+            }
+            
+            if (stored.isEmpty()) {
+                return;
+            }
+            
+            Bukkit.getScheduler().runTask(plugin, () -> {
+                if (plugin.isShuttingDown()) {
+                    return;
+                }
+                
+                for (StoredChest chest : stored) {
+                    addPendingRestore(chest);
+                }
+                log.info("Loaded " + stored.size() + " saved death chests, restoring them as their chunks load");
+                
+                // Chunks that are loaded already will not fire ChunkLoadEvent again
+                for (World world : Bukkit.getWorlds()) {
+                    restoreLoadedChunks(world);
+                }
+            });
+        });
+    }
+
+    /**
+     * Resume or finish the chests of a chunk that just loaded, and restore saved chests waiting for it
+     */
+    public void onChunkLoad(Chunk chunk) {
+        for (DeathChestData chest : deathChests.getInChunk(chunk)) {
+            if (chest.isPlaced() && chest.getItems() != null) {
+                unstashContents(chest);
+            }
+            
+            if (chest.isAwaitingChunk()) {
+                // Overdue chests are finished on the next tick through the normal timer path
+                chest.setAwaitingChunk(false);
+                chest.cancelTimeout();
+                chest.setTimeout(chestTimers.schedule(chest, 1L));
+            } else if (chest.isSuspended()) {
+                resumeCountdown(chest);
+            }
+        }
+        
+        if (pendingRestoreCount > 0) {
+            restorePendingChunk(chunk.getWorld(), BlockKey.chunk(chunk.getX(), chunk.getZ()));
+        }
+    }
+
+    /**
+     * Restore the saved chests in the already loaded chunks of a world that just loaded
+     */
+    public void onWorldLoad(World world) {
+        if (pendingRestoreCount == 0) {
+            return;
+        }
+        restoreLoadedChunks(world);
+    }
+
+    /**
+     * Get the number of saved chests waiting for their chunk to load
+     */
+    public int getPendingRestoreCount() {
+        return pendingRestoreCount;
+    }
+
+    private void addPendingRestore(StoredChest chest) {
+        LongObjectMap<List<StoredChest>> chunks = pendingRestores.get(chest.getWorldUuid());
+        if (chunks == null) {
+            chunks = new LongObjectMap<>();
+            pendingRestores.put(chest.getWorldUuid(), chunks);
+        }
+        
+        long chunkKey = BlockKey.chunkOf(chest.getBlockKey());
+        List<StoredChest> chests = chunks.get(chunkKey);
+        if (chests == null) {
+            chests = new ArrayList<>(1);
+            chunks.put(chunkKey, chests);
+        }
+        chests.add(chest);
+        pendingRestoreCount++;
+    }
+
+    private void restoreLoadedChunks(World world) {
+        LongObjectMap<List<StoredChest>> chunks = pendingRestores.get(world.getUID());
+        if (chunks == null) {
+            return;
+        }
+        
+        // Collect first: restoring removes entries from the map
+        List<Long> loaded = new ArrayList<>();
+        chunks.forEach((chunkKey, chests) -> {
+            if (world.isChunkLoaded(BlockKey.chunkX(chunkKey), BlockKey.chunkZ(chunkKey))) {
+                loaded.add(chunkKey);
+            }
+        });
+        for (long chunkKey : loaded) {
+            restorePendingChunk(world, chunkKey);
+        }
+    }
+
+    private void restorePendingChunk(World world, long chunkKey) {
+        LongObjectMap<List<StoredChest>> chunks = pendingRestores.get(world.getUID());
+        if (chunks == null) {
+            return;
+        }
+        
+        List<StoredChest> chests = chunks.remove(chunkKey);
+        if (chests == null) {
+            return;
+        }
+        if (chunks.isEmpty()) {
+            pendingRestores.remove(world.getUID());
+        }
+        pendingRestoreCount -= chests.size();
+        
+        for (StoredChest chest : chests) {
+            try {
+                restoreChest(world, chest);
+            } catch (Exception e) {
+                log.warning("Error restoring death chest of " + chest.getOwnerName() + ": " + e.getMessage());
+            }
+        }
+    }
+
+    /**
+     * Put a journaled chest back into its (loaded) chunk with its remaining time
+     */
+    private boolean restoreChest(World world, StoredChest stored) throws IOException {
+        if (plugin.isShuttingDown()) {
+            return false;
+        }
+        
+        long key = stored.getBlockKey();
+        Location location = new Location(world, BlockKey.getX(key), BlockKey.getY(key), BlockKey.getZ(key));
+        
+        // After a crash the old hologram was saved with the chunk; don't leave it next to the new one
+        HologramManager.removeStaleHolograms(location, MAX_CHEST_BLOCKS);
+        
+        if (isDeathChest(location)) {
+            // A new chest took this spot before the saved one was restored; don't lose the old items
+            List<ItemStack> items = ItemCodec.decode(stored.getItems());
+            dropOrVault(stored.getOwnerUuid(), location, items);
+            giveExperience(stored.getOwnerUuid(), location, stored.getExperience());
+            return false;
+        }
+        
+        // A chest still in the world is trusted over the journal: it may have changed since it was last
+        // journaled, and was unprotected until now. Only stashed contents or a missing chest come from the journal.
+        Block block = location.getBlock();
+        boolean fromWorld = !stored.isStashed() && block.getType() == Material.CHEST;
+        List<ItemStack> items = fromWorld ? new ArrayList<ItemStack>() : ItemCodec.decode(stored.getItems());
+        for (int i = 0; i < stored.getChestCount(); i++) {
+            Block part = block.getRelative(0, i, 0);
+            if (part.getType() == Material.CHEST && (i == 0 || !isDeathChest(part))) {
+                Inventory inventory = ((Chest) part.getState()).getBlockInventory();
+                if (fromWorld) {
+                    Collections.addAll(items, inventory.getContents());
+                }
+                inventory.clear();
+                if (i > 0) {
+                    part.setType(Material.AIR);
+                }
+            }
+        }
+        ItemUtils.coalesce(items);
+        
+        // A frozen countdown starts running again only now that the chest is back
+        boolean frozen = stored.getFrozenMillis() >= 0;
+        long remainingMillis = frozen ? stored.getFrozenMillis() : stored.getExpiresAt() - System.currentTimeMillis();
+        DeathChestData chest = DeathChestData.builder()
+            .ownerUuid(stored.getOwnerUuid())
+            .ownerName(stored.getOwnerName())
+            .location(location)
+            .createdAt(stored.getCreatedAt())
+            .breakTimeSeconds((int) Math.max(1L, (remainingMillis + 999L) / 1000L))
+            .chestCount(stored.getChestCount())
+            .items(items)
+            .experience(stored.getExperience())
+            .build();
+        
+        deathChests.put(location, chest);
+        if (!placeChest(chest)) {
+            releaseChest(chest);
+            dropOrVault(stored.getOwnerUuid(), location, items);
+            giveExperience(stored.getOwnerUuid(), location, chest.getExperience());
+            return false;
+        }
+        
+        if (frozen) {
+            journalExpiry(chest);
+        }
+        
+        if (fromWorld) {
+            // Bring the journal in line with what the chest really holds
+            journalContents(chest, getChestBlocks(chest));
+            if (items.isEmpty()) {
+                removeIfEmpty(block);
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Send items to their owner's vault, or drop them when vaults are disabled
+     */
+    private void dropOrVault(UUID owner, Location location, List<ItemStack> items) {
+        if (!isVaultEnabled() || !vaultManager.deposit(owner, items)) {
+            dropScheduler.schedule(owner, location, items);
+        }
+    }
+
+    /**
+     * Write a chest to the journal, replacing any earlier entry at its location
+     * @param items the chest contents
+     * @param expiresAt wall-clock time at which the chest breaks (epoch ms)
+     */
+    private void journalCreate(DeathChestData chest, List<ItemStack> items, long expiresAt) {
+        if (journal == null) {
+            return;
+        }
+        
+        try {
+            Location location = chest.getLocation();
+            journal.logCreate(new StoredChest(
+                chest.getOwnerUuid(),
+                chest.getOwnerName(),
+                location.getWorld().getUID(),
+                BlockKey.of(location),
+                chest.getCreatedAt(),
+                expiresAt,
+                -1L,
+                ItemCodec.encode(items),
+                chest.getChestCount(),
+                chest.getExperience(),
+                isStashed(chest)));
+        } catch (IOException e) {
+            log.warning("Could not save death chest of " + chest.getOwnerName() + ": " + e.getMessage());
+        }
+    }
+
+    /**
+     * Record the current contents of a death chest after a player changed them
+     * @param block the chest block (the chest itself or one stacked on it)
+     * @param contents the chest inventory contents
+     */
+    public void recordContents(Block block, ItemStack[] contents) {
+        if (journal == null) {
+            return;
+        }
+        
+        DeathChestData chest = findChest(block);
+        if (chest == null || !chest.isPlaced()) {
+            return;
+        }
+        
+        if (chest.getChestCount() > 1) {
+            // The journal entry covers the whole stack, so read the other chests too
+            journalContents(chest, getChestBlocks(chest));
+            return;
+        }
+        
+        journalItems(chest, Arrays.asList(contents));
+    }
+
+    /**
+     * Journal the current contents of every chest in a stack
+     */
+    private void journalContents(DeathChestData chest, List<Block> blocks) {
+        if (journal == null) {
+            return;
+        }
+        
+        List<ItemStack> items = new ArrayList<>(blocks.size() * CHEST_SLOTS);
+        for (Block part : blocks) {
+            if (part.getType() == Material.CHEST) {
+                Collections.addAll(items, ((Chest) part.getState()).getBlockInventory().getContents());
+            }
+        }
+        journalItems(chest, items);
+    }
+
+    private boolean journalItems(DeathChestData chest, Iterable<ItemStack> items) {
+        try {
+            Location location = chest.getLocation();
+            journal.logUpdate(location.getWorld().getUID(), BlockKey.of(location), ItemCodec.encode(items), isStashed(chest));
+            return true;
+        } catch (IOException e) {
+            log.warning("Could not save death chest contents of " + chest.getOwnerName() + ": " + e.getMessage());
+            return false;
+        }
+    }
+
+    /**
+     * Check if the items of a placed chest are held by its record instead of the chest blocks
+     */
+    private static boolean isStashed(DeathChestData chest) {
+        return chest.isPlaced() && chest.getItems() != null;
+    }
+
+    /**
+     * Check if an inventory belongs to a death chest. Runs for every hopper transfer, so where the server
+     * can report the inventory's location, the holder (a BlockState copy) is only built for a death chest position.
+     */
+    public boolean isDeathChestInventory(Inventory inventory) {
+        if (deathChests.isEmpty() || inventory == null || inventory.getType() != InventoryType.CHEST) {
+            return false;
+        }
+        Location location = VersionUtils.getInventoryLocation(inventory);
+        if (location != null && location.getWorld() != null && !isDeathChest(location)) {
+            return false;
+        }
+        InventoryHolder holder = inventory.getHolder();
+        return holder instanceof Chest && isDeathChest(((Chest) holder).getBlock());
+    }
+
     /**
      * Check if a location contains a death chest
      */
     public boolean isDeathChest(Location location) {
-        Location normalized = normalizeLocation(location);
-        return normalized != null && deathChests.containsKey(normalized);
+        return deathChests.contains(location) || (!overflowChests.isEmpty() && overflowChests.contains(location));
+    }
+
+    /**
+     * Check if a block is a death chest (allocation-free, safe for the block event hot path)
+     */
+    public boolean isDeathChest(Block block) {
+        return deathChests.contains(block) || (!overflowChests.isEmpty() && overflowChests.contains(block));
+    }
+
+    /**
+     * Get the death chests within a radius of a location, visiting only the chunks in range
+     */
+    public List<DeathChestData> getChestsNear(Location center, double radius) {
+        return deathChests.getNear(center, radius);
+    }
+    
+    /**
+     * Remove death chest blocks from an explosion's block list so they cannot be blown up.
+     * Only blocks in chunks that actually hold a death chest are looked up.
+     */
+    public void protectFromExplosion(List<Block> blocks) {
+        if (deathChests.isEmpty() || blocks == null || blocks.isEmpty()) {
+            return;
+        }
+        
+        World world = blocks.get(0).getWorld();
+        int lastChunkX = Integer.MIN_VALUE;
+        int lastChunkZ = Integer.MIN_VALUE;
+        boolean chunkHasChests = false;
+        
+        Iterator<Block> iterator = blocks.iterator();
+        while (iterator.hasNext()) {
+            Block block = iterator.next();
+            int chunkX = block.getX() >> 4;
+            int chunkZ = block.getZ() >> 4;
+            if (chunkX != lastChunkX || chunkZ != lastChunkZ) {
+                lastChunkX = chunkX;
+                lastChunkZ = chunkZ;
+                chunkHasChests = deathChests.hasChunk(world, chunkX, chunkZ) ||
+                    overflowChests.hasChunk(world, chunkX, chunkZ);
+            }
+            if (chunkHasChests && isDeathChest(block)) {
+                iterator.remove();
+            }
+        }
     }
     
     /**
@@ -570,14 +1864,14 @@ public class DeathChestManager {
     public int getActiveChestCount() {
         return deathChests.size();
     }
-    
+
     /**
      * Get the owner of a death chest
      * @param location the location of the chest
      * @return the UUID of the owner, or null if not a death chest
      */
     public UUID getChestOwner(Location location) {
-        Location normalized = normalizeLocation(location);
-        return normalized != null ? deathChests.get(normalized) : null;
+        DeathChestData chest = findChest(location);
+        return chest != null ? chest.getOwnerUuid() : null;
     }
 }
@@ -0,0 +1,146 @@
+package dev.arctic.arcticdeathchest.managers;
+
+import dev.arctic.arcticdeathchest.ArcticDeathChest;
+import dev.arctic.arcticdeathchest.utils.ItemUtils;
+import lombok.extern.java.Log;
+import org.bukkit.Location;
+import org.bukkit.World;
+import org.bukkit.entity.Item;
+import org.bukkit.inventory.ItemStack;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Spreads the item entities of broken death chests over several ticks.
+ * Identical stacks are merged first, then every chest releases a small batch per tick
+ * in round-robin order, under a global per-tick cap on spawned entities.
+ * Not thread-safe: all calls must happen on the server main thread.
+ */
+@Log
+public class DropScheduler {
+    private final ArcticDeathChest plugin;
+    private final ArrayDeque<DropJob> jobs = new ArrayDeque<>();
+    private int pendingDrops = 0;
+
+    public DropScheduler(ArcticDeathChest plugin) {
+        this.plugin = plugin;
+    }
+
+    /**
+     * Queue items to be dropped at a chest location
+     * @param owner the player the items belong to
+     * @param location block location of the chest
+     * @param items the items to drop (null and air stacks are ignored)
+     */
+    public void schedule(UUID owner, Location location, Iterable<ItemStack> items) {
+        if (location == null || location.getWorld() == null || items == null) {
+            return;
+        }
+
+        List<ItemStack> stacks = new ArrayList<>();
+        for (ItemStack item : items) {
+            stacks.add(item);
+        }
+        ItemUtils.coalesce(stacks);
+
+        DropJob job = new DropJob(owner, location.clone().add(0.5, 0.5, 0.5));
+        job.items.addAll(stacks);
+        if (!job.items.isEmpty()) {
+            jobs.add(job);
+            pendingDrops += job.items.size();
+        }
+    }
+
+    /**
+     * Release the next batch of drops (runs once per server tick).
+     * Chests in chunks that are not loaded wait rather than loading the chunk.
+     */
+    public void tick() {
+        if (jobs.isEmpty()) {
+            return;
+        }
+
+        int budget = plugin.getPluginConfig().getDropsPerTick();
+        int perChest = plugin.getPluginConfig().getDropsPerChestPerTick();
+
+        // Each job gets at most one turn per tick; unfinished jobs go to the back of the line
+        int turns = jobs.size();
+        for (int i = 0; i < turns && budget > 0; i++) {
+            DropJob job = jobs.poll();
+            if (isChunkLoaded(job.location)) {
+                int batch = Math.min(perChest, budget);
+                for (int d = 0; d < batch && !job.items.isEmpty(); d++) {
+                    drop(job.location, job.items.poll());
+                    pendingDrops--;
+                    budget--;
+                }
+            }
+            if (!job.items.isEmpty()) {
+                jobs.add(job);
+            }
+        }
+    }
+
+    /**
+     * Drop everything still queued right away (called on plugin disable, when there are no later ticks).
+     * With vaults enabled, items waiting for an unloaded chunk go to their owner's vault rather than loading the chunk.
+     */
+    public void flush() {
+        VaultManager vaultManager = plugin.getVaultManager();
+        boolean vault = vaultManager != null && vaultManager.isEnabled();
+        DropJob job;
+        while ((job = jobs.poll()) != null) {
+            if (vault && !isChunkLoaded(job.location) && job.owner != null &&
+                    vaultManager.deposit(job.owner, new ArrayList<>(job.items))) {
+                job.items.clear();
+                continue;
+            }
+            
+            // Dropping into an unloaded chunk loads it, but only as a last resort to keep the items
+            ItemStack item;
+            while ((item = job.items.poll()) != null) {
+                drop(job.location, item);
+            }
+        }
+        pendingDrops = 0;
+    }
+
+    /**
+     * Get the number of item entities still waiting to be dropped
+     */
+    public int getPendingDrops() {
+        return pendingDrops;
+    }
+
+    private void drop(Location location, ItemStack item) {
+        try {
+            Item droppedItem = location.getWorld().dropItemNaturally(location, item);
+            // Reduce velocity for a nicer effect
+            droppedItem.setVelocity(droppedItem.getVelocity().multiply(0.3));
+        } catch (Exception e) {
+            log.warning("Error dropping item from death chest: " + e.getMessage());
+        }
+    }
+
+    private static boolean isChunkLoaded(Location location) {
+        World world = location.getWorld();
+        return world != null && world.isChunkLoaded(location.getBlockX() >> 4, location.getBlockZ() >> 4);
+    }
+
+    /**
+     * Items still to be dropped at one location
+     */
+    private static final class DropJob {
+        private final UUID owner;
+        private final Location location;
+        private final ArrayDeque<ItemStack> items = new ArrayDeque<>();
+
+        private DropJob(UUID owner, Location location) {
+            this.owner = owner;
+            this.location = location;
+        }
+    }
+}
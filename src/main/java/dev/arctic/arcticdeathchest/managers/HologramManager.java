@@ -4,14 +4,13 @@ import dev.arctic.arcticdeathchest.ArcticDeathChest;
 import dev.arctic.arcticdeathchest.utils.VersionUtils;
 import lombok.extern.java.Log;
 import org.bukkit.ChatColor;
+import org.bukkit.Chunk;
 import org.bukkit.Location;
 import org.bukkit.entity.ArmorStand;
-import org.bukkit.entity.Player;
+import org.bukkit.entity.Entity;
 
 import java.util.ArrayList;
 import java.util.List;
-import java.util.concurrent.ConcurrentHashMap;
-import java.util.Map;
 
 /**
  * Manager for creating and handling hologram displays above death chests.
@@ -21,7 +20,6 @@ import java.util.Map;
 @Log
 public class HologramManager {
     private static ArcticDeathChest plugin;
-    private static final Map<Location, List<ArmorStand>> activeHolograms = new ConcurrentHashMap<>();
     private static boolean hologramsSupported = false;
 
     public static void initialize(ArcticDeathChest main) {
@@ -47,17 +45,17 @@ public class HologramManager {
     /**
      * Create a hologram above a death chest
      * @param location The location of the chest
-     * @param player The player who owns the chest
+     * @param ownerName The name of the player who owns the chest
      * @param seconds Initial countdown seconds
      * @return List of ArmorStands forming the hologram, or empty list if not supported
      */
-    public static List<ArmorStand> createHologram(Location location, Player player, int seconds) {
+    public static List<ArmorStand> createHologram(Location location, String ownerName, int seconds) {
         List<ArmorStand> hologramLines = new ArrayList<>();
         
         // Check all prerequisites
         if (!hologramsSupported || plugin == null || plugin.getPluginConfig() == null || 
             !plugin.getPluginConfig().isHologramEnabled() || location == null || 
-            location.getWorld() == null || player == null) {
+            location.getWorld() == null || ownerName == null) {
             return hologramLines;
         }
         
@@ -72,7 +70,7 @@ public class HologramManager {
             
             // Create first line (player name)
             String firstLine = plugin.getPluginConfig().getHologramFirstLine()
-                                   .replace("%player%", player.getName());
+                                   .replace("%player%", ownerName);
             firstLine = ChatColor.translateAlternateColorCodes('&', firstLine);
             ArmorStand firstStand = spawnHologramLine(holoLoc.clone(), firstLine);
             if (firstStand != null) {
@@ -88,10 +86,8 @@ public class HologramManager {
                 hologramLines.add(secondStand);
             }
             
-            // Track the hologram for cleanup
             if (!hologramLines.isEmpty()) {
-                activeHolograms.put(normalizeLocation(location), new ArrayList<>(hologramLines));
-                log.fine("Created hologram with " + hologramLines.size() + " lines for " + player.getName());
+                log.fine("Created hologram with " + hologramLines.size() + " lines for " + ownerName);
             }
             
         } catch (Exception e) {
@@ -182,6 +178,48 @@ public class HologramManager {
         }
     }
 
+    /**
+     * Remove hologram stands left above a chest by a crash. Stands are saved with their chunk, so a
+     * chest restored after a crash would otherwise get a second hologram over the old one.
+     * Only invisible, named, gravity-less stands in the column above the chest are removed.
+     * @param location the location of the bottom chest; its chunk must be loaded
+     * @param chestCount the most chests the stack can have
+     */
+    public static void removeStaleHolograms(Location location, int chestCount) {
+        if (!hologramsSupported || plugin == null || plugin.getPluginConfig() == null || location.getWorld() == null) {
+            return;
+        }
+        
+        try {
+            int x = location.getBlockX();
+            int z = location.getBlockZ();
+            double minY = location.getBlockY();
+            double maxY = minY + chestCount + plugin.getPluginConfig().getHologramHeight() + 1.0;
+            
+            Chunk chunk = location.getWorld().getChunkAt(x >> 4, z >> 4);
+            int removed = 0;
+            for (Entity entity : chunk.getEntities()) {
+                if (!(entity instanceof ArmorStand)) {
+                    continue;
+                }
+                ArmorStand stand = (ArmorStand) entity;
+                Location standLocation = stand.getLocation();
+                if (standLocation.getBlockX() == x && standLocation.getBlockZ() == z &&
+                        standLocation.getY() >= minY && standLocation.getY() <= maxY &&
+                        !stand.isVisible() && stand.isCustomNameVisible() && !stand.hasGravity()) {
+                    stand.remove();
+                    removed++;
+                }
+            }
+            
+            if (removed > 0) {
+                log.fine("Removed " + removed + " stale hologram entities at " + location);
+            }
+        } catch (Exception e) {
+            log.warning("Error removing stale hologram: " + e.getMessage());
+        }
+    }
+
     /**
      * Update the timer display on a hologram
      */
@@ -205,61 +243,11 @@ public class HologramManager {
     }
     
     /**
-     * Normalize a location to block coordinates for map key consistency
-     */
-    private static Location normalizeLocation(Location loc) {
-        if (loc == null || loc.getWorld() == null) {
-            return null;
-        }
-        return new Location(loc.getWorld(), loc.getBlockX(), loc.getBlockY(), loc.getBlockZ());
-    }
-    
-    /**
-     * Clean up all active holograms and reset the manager
+     * Reset the manager. Hologram entities are owned by their death chest records
+     * and are removed by the DeathChestManager during its own cleanup.
      */
     public static void cleanup() {
-        try {
-            int count = activeHolograms.size();
-            if (count > 0) {
-                log.info("Cleaning up " + count + " active holograms...");
-            }
-            
-            for (List<ArmorStand> hologram : activeHolograms.values()) {
-                removeHologram(hologram);
-            }
-            activeHolograms.clear();
-            
-            if (count > 0) {
-                log.info("Hologram cleanup completed.");
-            }
-        } catch (Exception e) {
-            log.severe("Error during hologram cleanup: " + e.getMessage());
-            e.printStackTrace();
-            
-            // Force clear as fallback
-            activeHolograms.clear();
-        }
-    }
-    
-    /**
-     * Remove a hologram from tracking when it's destroyed
-     * @param location The location of the hologram to stop tracking
-     */
-    public static void untrackHologram(Location location) {
-        Location normalized = normalizeLocation(location);
-        if (normalized != null) {
-            List<ArmorStand> removed = activeHolograms.remove(normalized);
-            if (removed != null) {
-                log.fine("Untracked hologram at " + normalized);
-            }
-        }
-    }
-    
-    /**
-     * Get the number of active holograms
-     * @return count of active holograms
-     */
-    public static int getActiveHologramCount() {
-        return activeHolograms.size();
+        plugin = null;
+        log.info("HologramManager cleanup completed");
     }
 }
@@ -0,0 +1,161 @@
+package dev.arctic.arcticdeathchest.managers;
+
+import dev.arctic.arcticdeathchest.ArcticDeathChest;
+import dev.arctic.arcticdeathchest.storage.ItemCodec;
+import dev.arctic.arcticdeathchest.storage.VaultStore;
+import dev.arctic.arcticdeathchest.utils.ItemUtils;
+import lombok.extern.java.Log;
+import org.bukkit.Bukkit;
+import org.bukkit.entity.Player;
+import org.bukkit.inventory.ItemStack;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * Per-player virtual vaults for items that could not be kept in a death chest.
+ * Items are stored on disk instead of being spawned as entities, and players move
+ * them into their inventory with {@code /arcticdeathchest vault}.
+ */
+@Log
+public class VaultManager {
+    private static final String VAULT_FOLDER = "vaults";
+
+    private final ArcticDeathChest plugin;
+    private final VaultStore store;
+
+    // Players with a claim in flight; a second claim is refused so nothing is handed out twice
+    private final Set<UUID> claiming = new HashSet<>();
+
+    public VaultManager(ArcticDeathChest plugin) {
+        this.plugin = plugin;
+        this.store = new VaultStore(new File(plugin.getDataFolder(), VAULT_FOLDER));
+    }
+
+    /**
+     * Check if items should go to vaults instead of being dropped
+     */
+    public boolean isEnabled() {
+        return plugin.getPluginConfig().isVaultEnabled();
+    }
+
+    /**
+     * Put items into a player's vault and tell them if they are online
+     * @param owner the player the items belong to
+     * @param items the items to store (null and air stacks are ignored)
+     * @return true if the vault took the items; a failed write is retried, so only false means they are not stored
+     */
+    public boolean deposit(UUID owner, List<ItemStack> items) {
+        List<ItemStack> stacks = new ArrayList<>(items);
+        ItemUtils.coalesce(stacks);
+        if (stacks.isEmpty()) {
+            return true;
+        }
+
+        try {
+            if (!store.append(owner, ItemCodec.encode(stacks))) {
+                return false;
+            }
+        } catch (IOException e) {
+            log.warning("Could not store items in the vault of " + owner + ": " + e.getMessage());
+            return false;
+        }
+
+        Player player = Bukkit.getPlayer(owner);
+        if (player != null && player.isOnline()) {
+            MessageManager.sendMessage(player, "&eSome of your items were put in your vault. Use &f/arcticdeathchest vault &eto claim them.");
+        }
+        return true;
+    }
+
+    /**
+     * Move the contents of a player's vault into their inventory; what doesn't fit stays in the vault
+     */
+    public void claim(Player player) {
+        UUID owner = player.getUniqueId();
+        if (!claiming.add(owner)) {
+            MessageManager.sendMessage(player, "&cYour vault is already being opened.");
+            return;
+        }
+
+        store.read(owner).whenComplete((contents, error) -> {
+            try {
+                Bukkit.getScheduler().runTask(plugin, () -> finishClaim(owner, contents, error));
+            } catch (Exception e) {
+                // Plugin disabled meanwhile; the vault is untouched
+                claiming.remove(owner);
+            }
+        });
+    }
+
+    private void finishClaim(UUID owner, VaultStore.Contents contents, Throwable error) {
+        claiming.remove(owner);
+        Player player = Bukkit.getPlayer(owner);
+        if (player == null || !player.isOnline()) {
+            return;
+        }
+
+        if (error != null) {
+            log.warning("Could not read the vault of " + player.getName() + ": " + error.getMessage());
+            MessageManager.sendMessage(player, "&cYour vault could not be opened, please try again later.");
+            return;
+        }
+
+        if (contents.getItems().isEmpty()) {
+            MessageManager.sendMessage(player, "&7Your vault is empty.");
+            return;
+        }
+
+        // Blobs this server cannot read are kept as they are rather than thrown away
+        List<byte[]> kept = new ArrayList<>();
+        List<ItemStack> items = new ArrayList<>();
+        for (byte[] blob : contents.getItems()) {
+            try {
+                items.addAll(ItemCodec.decode(blob));
+            } catch (IOException e) {
+                log.warning("Skipping unreadable items in the vault of " + player.getName() + ": " + e.getMessage());
+                kept.add(blob);
+            }
+        }
+        ItemUtils.coalesce(items);
+
+        List<ItemStack> left = new ArrayList<>();
+        for (ItemStack item : items) {
+            Map<Integer, ItemStack> leftover = player.getInventory().addItem(item.clone());
+            left.addAll(leftover.values());
+        }
+
+        if (!left.isEmpty()) {
+            try {
+                kept.add(ItemCodec.encode(left));
+            } catch (IOException e) {
+                // Can't put them back; give them to the player on the ground instead of losing them
+                log.warning("Could not store leftover vault items of " + player.getName() + ": " + e.getMessage());
+                for (ItemStack item : left) {
+                    player.getWorld().dropItemNaturally(player.getLocation(), item);
+                }
+                left.clear();
+            }
+        }
+        store.replace(owner, contents.getLength(), kept);
+
+        if (left.isEmpty()) {
+            MessageManager.sendMessage(player, "&aYou claimed everything in your vault.");
+        } else {
+            MessageManager.sendMessage(player, "&eYour inventory is full, " + left.size() + " stacks stay in your vault.");
+        }
+    }
+
+    /**
+     * Write everything still queued (called on plugin disable, after the chests are cleaned up)
+     */
+    public void close() {
+        store.close();
+    }
+}
@@ -0,0 +1,689 @@
+package dev.arctic.arcticdeathchest.storage;
+
+import dev.arctic.arcticdeathchest.utils.LongObjectMap;
+import lombok.extern.java.Log;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.CRC32;
+
+/**
+ * Append-only write-ahead journal of death chest create/update/expiry/freeze/experience/remove records.
+ * The main thread only encodes and enqueues records; a background writer appends
+ * everything queued since its last write and fsyncs once per batch (group commit).
+ * Every frame carries a CRC, so a torn tail left by a crash is detected and cut off on replay.
+ *
+ * <p>Once the journal outgrows the last snapshot, the writer compacts it: the live chests are
+ * written to a snapshot file of the next generation, which then replaces the old one atomically,
+ * and the journal restarts empty under that generation. Startup reads the snapshot plus the
+ * journal tail of the same generation, so replay time follows the number of live chests.
+ */
+@Log
+public class ChestJournal {
+    private static final int JOURNAL_MAGIC = 0x4144434A; // "ADCJ"
+    private static final int SNAPSHOT_MAGIC = 0x41444353; // "ADCS"
+    private static final int FORMAT_VERSION = 1;
+    private static final int HEADER_SIZE = 16;
+    private static final int MAX_FRAME_SIZE = 16 * 1024 * 1024;
+
+    // Compact once the journal is past this size and twice the size of the last snapshot
+    private static final long COMPACT_MIN_BYTES = 1024L * 1024L;
+
+    private static final byte RECORD_CREATE = 1;
+    private static final byte RECORD_UPDATE = 2;
+    private static final byte RECORD_REMOVE = 3;
+    private static final byte RECORD_EXPIRY = 4;
+    private static final byte RECORD_EXPERIENCE = 5;
+    private static final byte RECORD_FREEZE = 6;
+
+    // Queue marker that tells the writer to finish the current batch and exit
+    private static final Record SHUTDOWN = new Record((byte) 0, null, 0L, null, null);
+
+    private final File file;
+    private final File snapshotFile;
+    private final BlockingQueue<Record> queue = new LinkedBlockingQueue<>();
+
+    // Live chests as of the last applied record; owned by the writer thread once open
+    private final Map<UUID, LongObjectMap<StoredChest>> live = new HashMap<>();
+
+    // Generation of the current snapshot and journal; owned by the writer thread once open
+    private long generation = 0;
+    private long snapshotSize = 0;
+
+    private FileChannel channel;
+    private Thread writer;
+    private volatile boolean opened = false;
+    private volatile boolean closed = false;
+
+    /**
+     * @param file the journal file; the snapshot is kept next to it with a {@code .snapshot} suffix
+     */
+    public ChestJournal(File file) {
+        this.file = file;
+        this.snapshotFile = new File(file.getPath() + ".snapshot");
+    }
+
+    /**
+     * Load the snapshot, replay the journal, cut off any torn tail, and start the background writer.
+     * Records logged before this call are queued and written once the writer starts.
+     * Call off the main thread; this reads both files.
+     * @return the chests that were live when the journal was last written
+     */
+    public synchronized List<StoredChest> open() throws IOException {
+        if (opened || closed) {
+            return new ArrayList<>();
+        }
+
+        File parent = file.getParentFile();
+        if (parent != null && !parent.exists() && !parent.mkdirs()) {
+            throw new IOException("Could not create " + parent);
+        }
+
+        loadSnapshot();
+        long validLength = replay();
+        channel = FileChannel.open(file.toPath(), StandardOpenOption.CREATE, StandardOpenOption.WRITE);
+        if (validLength == 0) {
+            resetJournal();
+        } else if (validLength < channel.size()) {
+            log.warning("Discarding " + (channel.size() - validLength) + " bytes of incomplete death chest journal data");
+            channel.truncate(validLength);
+            channel.force(true);
+        }
+        channel.position(channel.size());
+
+        List<StoredChest> restored = new ArrayList<>();
+        for (LongObjectMap<StoredChest> chests : live.values()) {
+            chests.forEachValue(restored::add);
+        }
+
+        writer = new Thread(this::runWriter, "ArcticDeathChest-Journal");
+        writer.setDaemon(true);
+        writer.start();
+        opened = true;
+        return restored;
+    }
+
+    /**
+     * Record a new chest
+     */
+    public void logCreate(StoredChest chest) {
+        enqueue(new Record(RECORD_CREATE, chest.getWorldUuid(), chest.getBlockKey(), chest, null));
+    }
+
+    /**
+     * Record new contents for a chest
+     * @param items contents encoded with {@link ItemCodec}
+     * @param stashed true if the items were taken out of the chest blocks rather than read from them
+     */
+    public void logUpdate(UUID worldUuid, long blockKey, byte[] items, boolean stashed) {
+        enqueue(new Record(RECORD_UPDATE, worldUuid, blockKey, null, items, stashed ? 1L : 0L));
+    }
+
+    /**
+     * Record a new break time for a chest
+     * @param expiresAt wall-clock time at which the chest breaks (epoch ms)
+     */
+    public void logExpiry(UUID worldUuid, long blockKey, long expiresAt) {
+        enqueue(new Record(RECORD_EXPIRY, worldUuid, blockKey, null, null, expiresAt));
+    }
+
+    /**
+     * Record that a chest's countdown is frozen; it only continues once the chest is placed again
+     * @param remainingMillis time left on the countdown (ms)
+     */
+    public void logFreeze(UUID worldUuid, long blockKey, long remainingMillis) {
+        enqueue(new Record(RECORD_FREEZE, worldUuid, blockKey, null, null, remainingMillis));
+    }
+
+    /**
+     * Record the experience left in a chest
+     */
+    public void logExperience(UUID worldUuid, long blockKey, int experience) {
+        enqueue(new Record(RECORD_EXPERIENCE, worldUuid, blockKey, null, null, experience));
+    }
+
+    /**
+     * Record that a chest is gone
+     */
+    public void logRemove(UUID worldUuid, long blockKey) {
+        enqueue(new Record(RECORD_REMOVE, worldUuid, blockKey, null, null));
+    }
+
+    /**
+     * Wait until every record logged so far is written and fsynced
+     * @return true if they are durable; false on a write error, a timeout, or a journal that is not open
+     */
+    public boolean flush(long timeoutMillis) {
+        if (!opened || closed) {
+            return false;
+        }
+
+        Record barrier = new Record((byte) 0, null, 0L, null, null);
+        barrier.synced = new CountDownLatch(1);
+        queue.add(barrier);
+        try {
+            return barrier.synced.await(timeoutMillis, TimeUnit.MILLISECONDS) && barrier.durable;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+
+    /**
+     * Write every queued record, fsync, and stop the writer. Blocks until the data is durable.
+     */
+    public synchronized void close() {
+        if (closed) {
+            return;
+        }
+
+        if (!opened) {
+            // Still replaying or never opened: open now so queued records are not lost
+            try {
+                open();
+            } catch (IOException e) {
+                log.severe("Could not open death chest journal, " + queue.size() + " records were not saved: " + e.getMessage());
+                closed = true;
+                return;
+            }
+        }
+
+        closed = true;
+        queue.add(SHUTDOWN);
+        try {
+            writer.join(10000L);
+            if (writer.isAlive()) {
+                log.warning("Death chest journal writer did not finish in time");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+
+        try {
+            channel.force(true);
+            channel.close();
+        } catch (IOException e) {
+            log.warning("Error closing death chest journal: " + e.getMessage());
+        }
+    }
+
+    private void enqueue(Record record) {
+        if (closed) {
+            log.fine("Death chest journal is closed, dropping record");
+            return;
+        }
+        queue.add(record);
+    }
+
+    /**
+     * Writer loop: drain everything queued, append it in one write, fsync once, and compact when due
+     */
+    private void runWriter() {
+        List<Record> batch = new ArrayList<>();
+        ByteArrayOutputStream buffer = new ByteArrayOutputStream();
+        ByteArrayOutputStream payload = new ByteArrayOutputStream();
+        CRC32 crc = new CRC32();
+        List<Record> barriers = new ArrayList<>();
+
+        while (true) {
+            try {
+                batch.add(queue.take());
+            } catch (InterruptedException e) {
+                log.warning("Death chest journal writer interrupted");
+                return;
+            }
+            queue.drainTo(batch);
+
+            boolean stop = false;
+            buffer.reset();
+            for (Record record : batch) {
+                if (record == SHUTDOWN) {
+                    stop = true;
+                    continue;
+                }
+                if (record.synced != null) {
+                    barriers.add(record);
+                    continue;
+                }
+                try {
+                    writeFrame(record, buffer, payload, crc);
+                    apply(record);
+                } catch (IOException e) {
+                    log.warning("Could not encode death chest journal record: " + e.getMessage());
+                }
+            }
+            batch.clear();
+
+            boolean durable = false;
+            try {
+                if (buffer.size() > 0) {
+                    writeFully(ByteBuffer.wrap(buffer.toByteArray()));
+                    channel.force(false);
+                }
+                durable = true;
+
+                long journalSize = channel.size();
+                if (journalSize > COMPACT_MIN_BYTES && journalSize > snapshotSize * 2) {
+                    compact();
+                }
+            } catch (IOException e) {
+                log.severe("Could not write death chest journal: " + e.getMessage());
+            }
+
+            // Wake the threads waiting in flush() only once their records are durable (or failed)
+            for (Record barrier : barriers) {
+                barrier.durable = durable;
+                barrier.synced.countDown();
+            }
+            barriers.clear();
+
+            if (stop) {
+                return;
+            }
+        }
+    }
+
+    /**
+     * Write the live chests to a snapshot of the next generation and restart the journal empty.
+     * A crash at any point leaves either the old snapshot with the full journal, or the new
+     * snapshot with a journal of an older generation that replay ignores.
+     */
+    private void compact() throws IOException {
+        long nextGeneration = generation + 1;
+        File temp = new File(snapshotFile.getPath() + ".tmp");
+        ByteArrayOutputStream payload = new ByteArrayOutputStream();
+        CRC32 crc = new CRC32();
+
+        int count = 0;
+        for (LongObjectMap<StoredChest> chests : live.values()) {
+            count += chests.size();
+        }
+
+        try (FileOutputStream stream = new FileOutputStream(temp)) {
+            DataOutputStream out = new DataOutputStream(new BufferedOutputStream(stream));
+            out.writeInt(SNAPSHOT_MAGIC);
+            out.writeInt(FORMAT_VERSION);
+            out.writeLong(nextGeneration);
+            out.writeInt(count);
+            for (LongObjectMap<StoredChest> chests : live.values()) {
+                for (StoredChest chest : chests.values()) {
+                    writeFrame(new Record(RECORD_CREATE, chest.getWorldUuid(), chest.getBlockKey(), chest, null),
+                            out, payload, crc);
+                }
+            }
+            out.flush();
+            stream.getFD().sync();
+        }
+
+        try {
+            Files.move(temp.toPath(), snapshotFile.toPath(),
+                    StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        } catch (AtomicMoveNotSupportedException e) {
+            Files.move(temp.toPath(), snapshotFile.toPath(), StandardCopyOption.REPLACE_EXISTING);
+        }
+
+        long journalSize = channel.size();
+        generation = nextGeneration;
+        snapshotSize = snapshotFile.length();
+        resetJournal();
+        log.fine("Compacted death chest journal from " + journalSize + " bytes to a " + snapshotSize +
+                " byte snapshot of " + count + " chests");
+    }
+
+    /**
+     * Truncate the journal and write a header for the current generation
+     */
+    private void resetJournal() throws IOException {
+        channel.truncate(0);
+        channel.position(0);
+        ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE);
+        header.putInt(JOURNAL_MAGIC).putInt(FORMAT_VERSION).putLong(generation).flip();
+        writeFully(header);
+        channel.force(true);
+    }
+
+    /**
+     * Read the snapshot, if any, into {@link #live} and take over its generation
+     */
+    private void loadSnapshot() throws IOException {
+        if (!snapshotFile.exists()) {
+            return;
+        }
+
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(new FileInputStream(snapshotFile)))) {
+            try {
+                if (in.readInt() != SNAPSHOT_MAGIC || in.readInt() != FORMAT_VERSION) {
+                    moveAside(snapshotFile);
+                    return;
+                }
+                generation = in.readLong();
+                int count = in.readInt();
+                readFrames(in);
+                int loaded = 0;
+                for (LongObjectMap<StoredChest> chests : live.values()) {
+                    loaded += chests.size();
+                }
+                if (loaded != count) {
+                    log.warning("Death chest snapshot is incomplete: expected " + count + " chests, read " + loaded);
+                }
+            } catch (EOFException e) {
+                log.warning("Death chest snapshot is truncated");
+            }
+        }
+        snapshotSize = snapshotFile.length();
+    }
+
+    /**
+     * Read every intact journal frame of the current generation into {@link #live}
+     * @return the length of the valid prefix of the file (0 if the file must be started over)
+     */
+    private long replay() throws IOException {
+        if (!file.exists() || file.length() == 0) {
+            return 0;
+        }
+
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(new FileInputStream(file)))) {
+            long journalGeneration;
+            try {
+                if (in.readInt() != JOURNAL_MAGIC || in.readInt() != FORMAT_VERSION) {
+                    moveAside(file);
+                    return 0;
+                }
+                journalGeneration = in.readLong();
+            } catch (EOFException e) {
+                return 0;
+            }
+
+            if (journalGeneration < generation) {
+                // Already folded into the snapshot; a crash hit right after compaction
+                return 0;
+            }
+            if (journalGeneration > generation) {
+                log.warning("Death chest snapshot is missing or older than the journal, some chests may not be restored");
+                generation = journalGeneration;
+            }
+
+            return HEADER_SIZE + readFrames(in);
+        }
+    }
+
+    /**
+     * Apply frames until the end of the stream or the first damaged frame
+     * @return the number of bytes of intact frames read
+     */
+    private long readFrames(DataInputStream in) throws IOException {
+        long valid = 0;
+        CRC32 crc = new CRC32();
+        while (true) {
+            byte[] payload;
+            int checksum;
+            try {
+                int length = in.readInt();
+                if (length <= 0 || length > MAX_FRAME_SIZE) {
+                    break;
+                }
+                payload = new byte[length];
+                in.readFully(payload);
+                checksum = in.readInt();
+            } catch (EOFException e) {
+                break;
+            }
+
+            crc.reset();
+            crc.update(payload, 0, payload.length);
+            if ((int) crc.getValue() != checksum) {
+                break;
+            }
+
+            try {
+                apply(readRecord(payload));
+            } catch (IOException e) {
+                break;
+            }
+            valid += 8 + payload.length;
+        }
+        return valid;
+    }
+
+    /**
+     * Keep an unreadable file for inspection instead of overwriting it
+     */
+    private void moveAside(File target) {
+        File moved = new File(target.getPath() + ".corrupt-" + System.currentTimeMillis());
+        if (target.renameTo(moved)) {
+            log.severe("Death chest data file " + target.getName() + " has an unknown format, moved it to " + moved.getName());
+        } else {
+            log.severe("Death chest data file " + target.getName() + " has an unknown format and could not be moved aside");
+        }
+    }
+
+    private void apply(Record record) {
+        LongObjectMap<StoredChest> chests = live.get(record.worldUuid);
+        switch (record.type) {
+            case RECORD_CREATE:
+                if (chests == null) {
+                    chests = new LongObjectMap<>();
+                    live.put(record.worldUuid, chests);
+                }
+                chests.put(record.blockKey, record.chest);
+                break;
+
+            case RECORD_UPDATE:
+                StoredChest chest = chests != null ? chests.get(record.blockKey) : null;
+                if (chest != null) {
+                    chest.setItems(record.items);
+                    chest.setStashed(record.value != 0);
+                }
+                break;
+
+            case RECORD_EXPIRY:
+                StoredChest expiring = chests != null ? chests.get(record.blockKey) : null;
+                if (expiring != null) {
+                    expiring.setExpiresAt(record.value);
+                    expiring.setFrozenMillis(-1L);
+                }
+                break;
+
+            case RECORD_FREEZE:
+                StoredChest freezing = chests != null ? chests.get(record.blockKey) : null;
+                if (freezing != null) {
+                    freezing.setFrozenMillis(record.value);
+                }
+                break;
+
+            case RECORD_EXPERIENCE:
+                StoredChest paying = chests != null ? chests.get(record.blockKey) : null;
+                if (paying != null) {
+                    paying.setExperience((int) record.value);
+                }
+                break;
+
+            case RECORD_REMOVE:
+                if (chests != null) {
+                    chests.remove(record.blockKey);
+                    if (chests.isEmpty()) {
+                        live.remove(record.worldUuid);
+                    }
+                }
+                break;
+
+            default:
+                break;
+        }
+    }
+
+    private void writeFrame(Record record, OutputStream target, ByteArrayOutputStream payload,
+                            CRC32 crc) throws IOException {
+        payload.reset();
+        DataOutputStream out = new DataOutputStream(payload);
+        out.writeByte(record.type);
+        writeUuid(out, record.worldUuid);
+        out.writeLong(record.blockKey);
+        switch (record.type) {
+            case RECORD_CREATE:
+                StoredChest chest = record.chest;
+                writeUuid(out, chest.getOwnerUuid());
+                out.writeUTF(chest.getOwnerName());
+                out.writeLong(chest.getCreatedAt());
+                out.writeLong(chest.getExpiresAt());
+                out.writeLong(chest.getFrozenMillis());
+                writeBytes(out, chest.getItems());
+                out.writeByte(chest.getChestCount());
+                out.writeInt(chest.getExperience());
+                out.writeBoolean(chest.isStashed());
+                break;
+
+            case RECORD_UPDATE:
+                writeBytes(out, record.items);
+                out.writeBoolean(record.value != 0);
+                break;
+
+            case RECORD_EXPIRY:
+            case RECORD_FREEZE:
+                out.writeLong(record.value);
+                break;
+
+            case RECORD_EXPERIENCE:
+                out.writeInt((int) record.value);
+                break;
+
+            default:
+                break;
+        }
+        out.flush();
+
+        byte[] bytes = payload.toByteArray();
+        crc.reset();
+        crc.update(bytes, 0, bytes.length);
+
+        DataOutputStream frame = new DataOutputStream(target);
+        frame.writeInt(bytes.length);
+        frame.write(bytes);
+        frame.writeInt((int) crc.getValue());
+        frame.flush();
+    }
+
+    private Record readRecord(byte[] payload) throws IOException {
+        DataInputStream in = new DataInputStream(new ByteArrayInputStream(payload));
+        byte type = in.readByte();
+        UUID worldUuid = readUuid(in);
+        long blockKey = in.readLong();
+        switch (type) {
+            case RECORD_CREATE:
+                UUID ownerUuid = readUuid(in);
+                String ownerName = in.readUTF();
+                long createdAt = in.readLong();
+                long expiresAt = in.readLong();
+                long frozenMillis = in.readLong();
+                byte[] items = readBytes(in);
+                int chestCount = in.readUnsignedByte();
+                int experience = in.readInt();
+                boolean stashed = in.readBoolean();
+                return new Record(type, worldUuid, blockKey, new StoredChest(ownerUuid, ownerName, worldUuid,
+                        blockKey, createdAt, expiresAt, frozenMillis, items, chestCount, experience, stashed), null);
+
+            case RECORD_UPDATE:
+                return new Record(type, worldUuid, blockKey, null, readBytes(in), in.readBoolean() ? 1L : 0L);
+
+            case RECORD_EXPIRY:
+            case RECORD_FREEZE:
+                return new Record(type, worldUuid, blockKey, null, null, in.readLong());
+
+            case RECORD_EXPERIENCE:
+                return new Record(type, worldUuid, blockKey, null, null, in.readInt());
+
+            case RECORD_REMOVE:
+                return new Record(type, worldUuid, blockKey, null, null);
+
+            default:
+                throw new IOException("Unknown journal record type " + type);
+        }
+    }
+
+    private void writeFully(ByteBuffer buffer) throws IOException {
+        while (buffer.hasRemaining()) {
+            channel.write(buffer);
+        }
+    }
+
+    private static void writeUuid(DataOutputStream out, UUID uuid) throws IOException {
+        out.writeLong(uuid.getMostSignificantBits());
+        out.writeLong(uuid.getLeastSignificantBits());
+    }
+
+    private static UUID readUuid(DataInputStream in) throws IOException {
+        return new UUID(in.readLong(), in.readLong());
+    }
+
+    private static void writeBytes(DataOutputStream out, byte[] bytes) throws IOException {
+        out.writeInt(bytes.length);
+        out.write(bytes);
+    }
+
+    private static byte[] readBytes(DataInputStream in) throws IOException {
+        int length = in.readInt();
+        if (length < 0 || length > MAX_FRAME_SIZE) {
+            throw new IOException("Invalid length " + length);
+        }
+        byte[] bytes = new byte[length];
+        in.readFully(bytes);
+        return bytes;
+    }
+
+    /**
+     * One queued journal entry
+     */
+    private static final class Record {
+        private final byte type;
+        private final UUID worldUuid;
+        private final long blockKey;
+        private final StoredChest chest;
+        private final byte[] items;
+
+        // Break time (epoch ms) of an expiry record, time left (ms) of a freeze record, the experience of an experience record,
+        // or 1 for stashed contents in an update record
+        private final long value;
+
+        // Set on a flush barrier: counted down once the records queued before it are written
+        private CountDownLatch synced;
+        private volatile boolean durable;
+
+        private Record(byte type, UUID worldUuid, long blockKey, StoredChest chest, byte[] items) {
+            this(type, worldUuid, blockKey, chest, items, 0L);
+        }
+
+        private Record(byte type, UUID worldUuid, long blockKey, StoredChest chest, byte[] items, long value) {
+            this.type = type;
+            this.worldUuid = worldUuid;
+            this.blockKey = blockKey;
+            this.chest = chest;
+            this.items = items;
+            this.value = value;
+        }
+    }
+}
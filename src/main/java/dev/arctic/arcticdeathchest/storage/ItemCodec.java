@@ -0,0 +1,197 @@
+package dev.arctic.arcticdeathchest.storage;
+
+import lombok.extern.java.Log;
+import org.bukkit.Material;
+import org.bukkit.inventory.ItemStack;
+import org.bukkit.inventory.meta.ItemMeta;
+import org.bukkit.util.io.BukkitObjectInputStream;
+import org.bukkit.util.io.BukkitObjectOutputStream;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Encodes chest contents to bytes for the chest journal.
+ * Every blob starts with a format byte, so data of an unknown format is rejected instead of misread.
+ *
+ * <p>Binary layout, all integers as unsigned varints:
+ * <pre>
+ * format byte
+ * material count, then each material name once (UTF)
+ * stack count, then per stack:
+ *   material table index, amount, durability, has meta (boolean)
+ * if any stack has meta: one Bukkit object stream holding the meta of those stacks in order
+ * </pre>
+ * Materials are stored by name in a per-blob table so ordinals never leak into the data:
+ * they differ between server versions, names do not. Item meta is only serialized when present,
+ * and all of it shares one object stream so its header and class descriptors are written once per blob.
+ */
+@Log
+public final class ItemCodec {
+    /** Material name table, varint fields and one shared meta stream */
+    private static final byte FORMAT_VERSION = 1;
+
+    private ItemCodec() {}
+
+    /**
+     * Encode a list of items, skipping null and air stacks
+     */
+    public static byte[] encode(Iterable<ItemStack> items) throws IOException {
+        List<ItemStack> stacks = new ArrayList<>();
+        Map<Material, Integer> materialIndex = new EnumMap<>(Material.class);
+        List<Material> materials = new ArrayList<>();
+        if (items != null) {
+            for (ItemStack item : items) {
+                if (item == null || item.getType() == Material.AIR) {
+                    continue;
+                }
+                stacks.add(item);
+                if (!materialIndex.containsKey(item.getType())) {
+                    materialIndex.put(item.getType(), materials.size());
+                    materials.add(item.getType());
+                }
+            }
+        }
+
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(16 + stacks.size() * 8);
+        DataOutputStream out = new DataOutputStream(bytes);
+        out.writeByte(FORMAT_VERSION);
+
+        writeVarInt(out, materials.size());
+        for (Material material : materials) {
+            out.writeUTF(material.name());
+        }
+
+        List<ItemMeta> metas = new ArrayList<>();
+        writeVarInt(out, stacks.size());
+        for (ItemStack stack : stacks) {
+            writeVarInt(out, materialIndex.get(stack.getType()));
+            writeVarInt(out, stack.getAmount());
+            writeVarInt(out, stack.getDurability() & 0xFFFF);
+            boolean hasMeta = stack.hasItemMeta();
+            out.writeBoolean(hasMeta);
+            if (hasMeta) {
+                metas.add(stack.getItemMeta());
+            }
+        }
+        out.flush();
+
+        if (!metas.isEmpty()) {
+            try (BukkitObjectOutputStream metaOut = new BukkitObjectOutputStream(bytes)) {
+                for (ItemMeta meta : metas) {
+                    metaOut.writeObject(meta);
+                }
+            }
+        }
+        return bytes.toByteArray();
+    }
+
+    /**
+     * Decode items written by {@link #encode(Iterable)}.
+     * Stacks of materials this server does not know are skipped with a warning.
+     */
+    @SuppressWarnings("deprecation")
+    public static List<ItemStack> decode(byte[] data) throws IOException {
+        if (data == null || data.length == 0) {
+            throw new IOException("Empty item data");
+        }
+        if (data[0] != FORMAT_VERSION) {
+            throw new IOException("Unknown item format " + data[0]);
+        }
+
+        DataInputStream in = new DataInputStream(new ByteArrayInputStream(data, 1, data.length - 1));
+
+        int materialCount = readVarInt(in);
+        Material[] materials = new Material[materialCount];
+        for (int i = 0; i < materialCount; i++) {
+            String name = in.readUTF();
+            materials[i] = Material.getMaterial(name);
+            if (materials[i] == null) {
+                log.warning("Unknown material " + name + " in stored death chest, skipping those items");
+            }
+        }
+
+        int stackCount = readVarInt(in);
+        if (stackCount > data.length) {
+            throw new IOException("Invalid stack count " + stackCount);
+        }
+        // Stacks of unknown materials stay null here, but their meta must still be read to keep the order
+        ItemStack[] stacks = new ItemStack[stackCount];
+        boolean[] hasMeta = new boolean[stackCount];
+        boolean anyMeta = false;
+        for (int i = 0; i < stackCount; i++) {
+            int materialSlot = readVarInt(in);
+            if (materialSlot >= materialCount) {
+                throw new IOException("Invalid material index " + materialSlot);
+            }
+            int amount = readVarInt(in);
+            short durability = (short) readVarInt(in);
+            hasMeta[i] = in.readBoolean();
+            anyMeta |= hasMeta[i];
+
+            Material material = materials[materialSlot];
+            if (material != null) {
+                stacks[i] = new ItemStack(material, amount, durability);
+            }
+        }
+
+        if (anyMeta) {
+            try (BukkitObjectInputStream metaIn = new BukkitObjectInputStream(in)) {
+                for (int i = 0; i < stackCount; i++) {
+                    if (!hasMeta[i]) {
+                        continue;
+                    }
+                    ItemMeta meta = (ItemMeta) metaIn.readObject();
+                    if (stacks[i] != null) {
+                        stacks[i].setItemMeta(meta);
+                    }
+                }
+            } catch (ClassNotFoundException | ClassCastException e) {
+                throw new IOException("Invalid item meta", e);
+            }
+        }
+
+        List<ItemStack> items = new ArrayList<>(stackCount);
+        for (ItemStack stack : stacks) {
+            if (stack != null) {
+                items.add(stack);
+            }
+        }
+        return items;
+    }
+
+    private static void writeVarInt(OutputStream out, int value) throws IOException {
+        while ((value & ~0x7F) != 0) {
+            out.write((value & 0x7F) | 0x80);
+            value >>>= 7;
+        }
+        out.write(value);
+    }
+
+    private static int readVarInt(InputStream in) throws IOException {
+        int value = 0;
+        for (int shift = 0; shift < 35; shift += 7) {
+            int b = in.read();
+            if (b < 0) {
+                throw new IOException("Truncated item data");
+            }
+            value |= (b & 0x7F) << shift;
+            if ((b & 0x80) == 0) {
+                if (value < 0) {
+                    throw new IOException("Invalid varint " + value);
+                }
+                return value;
+            }
+        }
+        throw new IOException("Varint too long");
+    }
+}
@@ -0,0 +1,64 @@
+package dev.arctic.arcticdeathchest.storage;
+
+import lombok.Getter;
+import lombok.NonNull;
+import lombok.Setter;
+
+import java.util.UUID;
+
+/**
+ * Persisted form of a death chest as recorded in the chest journal.
+ * Items are kept encoded so restored records stay compact until the chest is placed.
+ */
+@Getter
+public class StoredChest {
+    private final UUID ownerUuid;
+    private final String ownerName;
+    private final UUID worldUuid;
+
+    /** Packed block key of the chest location (see {@link dev.arctic.arcticdeathchest.utils.BlockKey}) */
+    private final long blockKey;
+
+    /** Creation time (epoch ms) */
+    private final long createdAt;
+
+    /** Wall-clock time at which the chest breaks (epoch ms), unless the countdown is frozen */
+    @Setter
+    private long expiresAt;
+
+    /** Time left on a frozen countdown (ms), which only runs again once the chest is placed; -1 if not frozen */
+    @Setter
+    private long frozenMillis;
+
+    /** Chest contents encoded with {@link ItemCodec} */
+    @Setter
+    @NonNull
+    private byte[] items;
+
+    /** Number of chest blocks stacked from the chest location upwards */
+    private final int chestCount;
+
+    /** Experience points not yet paid out */
+    @Setter
+    private int experience;
+
+    /** True while the items were taken out of the chest blocks (chunk unloaded), so the world holds none of them */
+    @Setter
+    private boolean stashed;
+
+    public StoredChest(@NonNull UUID ownerUuid, @NonNull String ownerName, @NonNull UUID worldUuid, long blockKey,
+                       long createdAt, long expiresAt, long frozenMillis, @NonNull byte[] items, int chestCount,
+                       int experience, boolean stashed) {
+        this.ownerUuid = ownerUuid;
+        this.ownerName = ownerName;
+        this.worldUuid = worldUuid;
+        this.blockKey = blockKey;
+        this.createdAt = createdAt;
+        this.expiresAt = expiresAt;
+        this.frozenMillis = frozenMillis;
+        this.items = items;
+        this.chestCount = chestCount;
+        this.experience = experience;
+        this.stashed = stashed;
+    }
+}
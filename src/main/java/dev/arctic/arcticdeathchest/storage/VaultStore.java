@@ -0,0 +1,301 @@
+package dev.arctic.arcticdeathchest.storage;
+
+import lombok.Getter;
+import lombok.extern.java.Log;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Per-player item vaults on disk. Each vault is an append-only file ({@code <owner uuid>.vault})
+ * of length-prefixed item blobs encoded with {@link ItemCodec}, so storing items never has to
+ * read or decode what is already there.
+ *
+ * <p>All file access runs in order on one background thread: deposits never wait on the disk,
+ * and a claim that rewrites a vault keeps everything appended after it was read. Deposits that
+ * fail to write are kept in memory and written again before the next access to that vault
+ * and on close, so an I/O error does not lose them.
+ */
+@Log
+public class VaultStore {
+    private static final String EXTENSION = ".vault";
+    private static final int MAX_BLOB_SIZE = 16 * 1024 * 1024;
+
+    private final File folder;
+    private final ExecutorService executor;
+
+    // Blobs whose append failed, per owner; only touched on the vault thread
+    private final Map<UUID, List<byte[]>> unwritten = new HashMap<>();
+
+    /**
+     * @param folder the folder holding the vault files (created on first write)
+     */
+    public VaultStore(File folder) {
+        this.folder = folder;
+        this.executor = Executors.newSingleThreadExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "ArcticDeathChest-Vault");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * Add items to a player's vault
+     * @param items items encoded with {@link ItemCodec}
+     * @return false if the store is closed and the items were not taken
+     */
+    public boolean append(UUID owner, byte[] items) {
+        return submit(() -> {
+            List<byte[]> blobs = unwritten.remove(owner);
+            if (blobs == null) {
+                blobs = new ArrayList<>(1);
+            }
+            blobs.add(items);
+            appendBlobs(owner, blobs);
+        });
+    }
+
+    /**
+     * Read a player's vault
+     * @return a future completed on the vault thread with the stored blobs
+     */
+    public CompletableFuture<Contents> read(UUID owner) {
+        CompletableFuture<Contents> future = new CompletableFuture<>();
+        boolean queued = submit(() -> {
+            retryUnwritten(owner);
+            try {
+                future.complete(readContents(getFile(owner)));
+            } catch (IOException e) {
+                future.completeExceptionally(e);
+            }
+        });
+        if (!queued) {
+            future.completeExceptionally(new IOException("Vault store is closed"));
+        }
+        return future;
+    }
+
+    /**
+     * Replace the part of a vault returned by an earlier {@link #read}, keeping anything appended since
+     * @param length {@link Contents#getLength()} of that read
+     * @param items blobs to keep in place of the read part (may be empty)
+     */
+    public void replace(UUID owner, long length, List<byte[]> items) {
+        submit(() -> {
+            // Written now, these end up in the tail that is kept
+            retryUnwritten(owner);
+
+            File file = getFile(owner);
+            byte[] existing = file.exists() ? Files.readAllBytes(file.toPath()) : new byte[0];
+            int tail = (int) Math.min(length, existing.length);
+
+            ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+            DataOutputStream out = new DataOutputStream(bytes);
+            for (byte[] item : items) {
+                out.writeInt(item.length);
+                out.write(item);
+            }
+            out.write(existing, tail, existing.length - tail);
+            out.flush();
+
+            if (bytes.size() == 0) {
+                Files.deleteIfExists(file.toPath());
+                return;
+            }
+
+            File temp = new File(file.getPath() + ".tmp");
+            try (FileOutputStream stream = new FileOutputStream(temp)) {
+                bytes.writeTo(stream);
+                stream.getFD().sync();
+            }
+            try {
+                Files.move(temp.toPath(), file.toPath(), StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+            } catch (AtomicMoveNotSupportedException e) {
+                Files.move(temp.toPath(), file.toPath(), StandardCopyOption.REPLACE_EXISTING);
+            }
+        });
+    }
+
+    /**
+     * Finish every queued write and stop the vault thread. Blocks until the data is durable.
+     */
+    public void close() {
+        submit(() -> {
+            for (UUID owner : new ArrayList<>(unwritten.keySet())) {
+                retryUnwritten(owner);
+            }
+        });
+        executor.shutdown();
+        try {
+            if (!executor.awaitTermination(10L, TimeUnit.SECONDS)) {
+                log.warning("Vault writer did not finish in time");
+                return;
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return;
+        }
+
+        for (Map.Entry<UUID, List<byte[]>> entry : unwritten.entrySet()) {
+            log.severe("Could not write " + entry.getValue().size() + " deposits to the vault of " + entry.getKey() +
+                    ", those items are lost");
+        }
+    }
+
+    /**
+     * Append blobs to a vault in one write; on failure they are kept for the next attempt
+     */
+    private void appendBlobs(UUID owner, List<byte[]> blobs) throws IOException {
+        try {
+            File file = getFile(owner);
+            if (!folder.exists() && !folder.mkdirs()) {
+                throw new IOException("Could not create " + folder);
+            }
+
+            ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+            DataOutputStream data = new DataOutputStream(bytes);
+            for (byte[] blob : blobs) {
+                data.writeInt(blob.length);
+                data.write(blob);
+            }
+            data.flush();
+
+            try (RandomAccessFile out = new RandomAccessFile(file, "rw")) {
+                long valid = trimTail(file, out);
+                try {
+                    out.seek(valid);
+                    out.write(bytes.toByteArray());
+                    out.getFD().sync();
+                } catch (IOException e) {
+                    // Take back what was written, as all of it is written again on the retry
+                    try {
+                        out.setLength(valid);
+                    } catch (IOException ignored) {
+                    }
+                    throw e;
+                }
+            }
+        } catch (IOException e) {
+            unwritten.put(owner, blobs);
+            throw new IOException(e.getMessage() + " (kept " + blobs.size() + " deposits in memory to retry)", e);
+        }
+    }
+
+    /**
+     * Write the deposits of a vault that failed earlier, if any
+     */
+    private void retryUnwritten(UUID owner) {
+        List<byte[]> blobs = unwritten.remove(owner);
+        if (blobs == null) {
+            return;
+        }
+        try {
+            appendBlobs(owner, blobs);
+        } catch (IOException e) {
+            log.warning("Still could not write to the vault of " + owner + ": " + e.getMessage());
+        }
+    }
+
+    private File getFile(UUID owner) {
+        return new File(folder, owner + EXTENSION);
+    }
+
+    private boolean submit(IoTask task) {
+        try {
+            executor.execute(() -> {
+                try {
+                    task.run();
+                } catch (IOException e) {
+                    log.severe("Could not access vault: " + e.getMessage());
+                }
+            });
+            return true;
+        } catch (RejectedExecutionException e) {
+            log.warning("Vault store is closed, dropping request");
+            return false;
+        }
+    }
+
+    private static Contents readContents(File file) throws IOException {
+        List<byte[]> items = new ArrayList<>();
+        if (!file.exists()) {
+            return new Contents(items, 0L);
+        }
+
+        try (RandomAccessFile in = new RandomAccessFile(file, "rw")) {
+            long valid = trimTail(file, in);
+            in.seek(0);
+            while (in.getFilePointer() < valid) {
+                byte[] item = new byte[in.readInt()];
+                in.readFully(item);
+                items.add(item);
+            }
+            return new Contents(items, valid);
+        }
+    }
+
+    /**
+     * Cut off a blob left incomplete by a crash, or it would hide everything written after it
+     * @return the length of the file that is left
+     */
+    private static long trimTail(File file, RandomAccessFile access) throws IOException {
+        long valid = validLength(access);
+        if (valid < access.length()) {
+            log.warning("Discarding " + (access.length() - valid) + " bytes of incomplete vault data in " + file.getName());
+            access.setLength(valid);
+        }
+        return valid;
+    }
+
+    /**
+     * Walk the blob headers and return the length of the complete blobs at the start of the file
+     */
+    private static long validLength(RandomAccessFile file) throws IOException {
+        long size = file.length();
+        long position = 0;
+        while (position + 4 <= size) {
+            file.seek(position);
+            int length = file.readInt();
+            if (length < 0 || length > MAX_BLOB_SIZE || position + 4 + length > size) {
+                break;
+            }
+            position += 4 + length;
+        }
+        return position;
+    }
+
+    private interface IoTask {
+        void run() throws IOException;
+    }
+
+    /**
+     * Blobs of a vault as read, with the file length they cover
+     */
+    @Getter
+    public static final class Contents {
+        private final List<byte[]> items;
+        private final long length;
+
+        private Contents(List<byte[]> items, long length) {
+            this.items = items;
+            this.length = length;
+        }
+    }
+}
@@ -0,0 +1,353 @@
+package dev.arctic.arcticdeathchest.utils;
+
+import org.bukkit.Chunk;
+import org.bukkit.Location;
+import org.bukkit.World;
+import org.bukkit.block.Block;
+
+import java.util.AbstractList;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Per-world index of values keyed by packed block coordinates, with a secondary
+ * chunk-key index so chunk events and area queries only visit the affected chunks.
+ * Lookups by {@link Block} or {@link Location} read the coordinates directly and
+ * never allocate, and a per-chunk presence table answers most misses with a single
+ * array read. Not thread-safe: all calls must happen on the server main thread.
+ *
+ * @param <V> the value type
+ */
+public class BlockIndex<V> {
+    /** Chunk coordinates are folded onto a 64x64 grid (shared by all worlds) for the presence table */
+    private static final int PRESENCE_BITS = 6;
+    private static final int PRESENCE_MASK = (1 << PRESENCE_BITS) - 1;
+
+    private final Map<UUID, WorldIndex<V>> worlds = new HashMap<>();
+    /** Number of entries whose chunk folds onto each grid cell; zero means no entry can be there */
+    private final int[] presence = new int[1 << (PRESENCE_BITS * 2)];
+    private int size = 0;
+
+    /**
+     * Get the value stored at a block
+     */
+    public V get(Block block) {
+        if (block == null) {
+            return null;
+        }
+        int x = block.getX();
+        int z = block.getZ();
+        if (!mightContain(x >> 4, z >> 4)) {
+            return null;
+        }
+        return get(block.getWorld(), BlockKey.pack(x, block.getY(), z));
+    }
+
+    /**
+     * Get the value stored at a location's block
+     */
+    public V get(Location location) {
+        if (location == null) {
+            return null;
+        }
+        int x = location.getBlockX();
+        int z = location.getBlockZ();
+        if (!mightContain(x >> 4, z >> 4)) {
+            return null;
+        }
+        return get(location.getWorld(), BlockKey.pack(x, location.getBlockY(), z));
+    }
+
+    /**
+     * Get the value stored under a packed block key in a world
+     */
+    public V get(World world, long key) {
+        if (world == null || size == 0) {
+            return null;
+        }
+        WorldIndex<V> index = worlds.get(world.getUID());
+        return index != null ? index.blocks.get(key) : null;
+    }
+
+    public boolean contains(Block block) {
+        return get(block) != null;
+    }
+
+    public boolean contains(Location location) {
+        return get(location) != null;
+    }
+
+    /**
+     * Store a value at a location's block
+     * @return the previous value, or null if there was none
+     */
+    public V put(Location location, V value) {
+        if (location == null || location.getWorld() == null) {
+            return null;
+        }
+        WorldIndex<V> index = worlds.computeIfAbsent(location.getWorld().getUID(), id -> new WorldIndex<>());
+        long key = BlockKey.of(location);
+        long chunkKey = BlockKey.chunkOf(key);
+
+        V previous = index.blocks.put(key, value);
+        ChunkBucket<V> bucket = index.chunks.get(chunkKey);
+        if (bucket == null) {
+            bucket = new ChunkBucket<>();
+            index.chunks.put(chunkKey, bucket);
+        }
+        if (previous != null) {
+            bucket.removeKey(key);
+        } else {
+            size++;
+            presence[presenceSlot(location.getBlockX() >> 4, location.getBlockZ() >> 4)]++;
+        }
+        bucket.add(key, value);
+        return previous;
+    }
+
+    /**
+     * Remove the value stored at a location's block
+     * @return the removed value, or null if there was none
+     */
+    public V remove(Location location) {
+        if (location == null || location.getWorld() == null || size == 0) {
+            return null;
+        }
+        UUID worldId = location.getWorld().getUID();
+        WorldIndex<V> index = worlds.get(worldId);
+        if (index == null) {
+            return null;
+        }
+        long key = BlockKey.of(location);
+        V removed = index.blocks.remove(key);
+        if (removed != null) {
+            size--;
+            presence[presenceSlot(location.getBlockX() >> 4, location.getBlockZ() >> 4)]--;
+            long chunkKey = BlockKey.chunkOf(key);
+            ChunkBucket<V> bucket = index.chunks.get(chunkKey);
+            if (bucket != null) {
+                bucket.removeKey(key);
+                if (bucket.isEmpty()) {
+                    index.chunks.remove(chunkKey);
+                }
+            }
+            if (index.blocks.isEmpty()) {
+                worlds.remove(worldId);
+            }
+        }
+        return removed;
+    }
+
+    /**
+     * Get the values stored in one chunk
+     * @return an unmodifiable view (do not modify the index while iterating), or an empty list
+     */
+    public List<V> getInChunk(World world, int chunkX, int chunkZ) {
+        if (world == null || !mightContain(chunkX, chunkZ)) {
+            return Collections.emptyList();
+        }
+        WorldIndex<V> index = worlds.get(world.getUID());
+        if (index == null) {
+            return Collections.emptyList();
+        }
+        ChunkBucket<V> bucket = index.chunks.get(BlockKey.chunk(chunkX, chunkZ));
+        return bucket != null ? bucket : Collections.<V>emptyList();
+    }
+
+    /**
+     * Get the values stored in a chunk
+     * @return an unmodifiable view (do not modify the index while iterating), or an empty list
+     */
+    public List<V> getInChunk(Chunk chunk) {
+        if (chunk == null) {
+            return Collections.emptyList();
+        }
+        return getInChunk(chunk.getWorld(), chunk.getX(), chunk.getZ());
+    }
+
+    /**
+     * Check if any value is stored in a chunk
+     */
+    public boolean hasChunk(World world, int chunkX, int chunkZ) {
+        return !getInChunk(world, chunkX, chunkZ).isEmpty();
+    }
+
+    /**
+     * Cheap pre-check for a chunk: false means no entry is stored there in any world,
+     * true means a full lookup is needed
+     */
+    public boolean mightContain(int chunkX, int chunkZ) {
+        return presence[presenceSlot(chunkX, chunkZ)] != 0;
+    }
+
+    /**
+     * Get the values whose block lies within a radius of a location.
+     * Only the chunks overlapping the radius are visited.
+     */
+    public List<V> getNear(Location center, double radius) {
+        List<V> result = new ArrayList<>();
+        if (center == null || center.getWorld() == null || size == 0 || radius < 0) {
+            return result;
+        }
+        WorldIndex<V> index = worlds.get(center.getWorld().getUID());
+        if (index == null) {
+            return result;
+        }
+
+        double radiusSquared = radius * radius;
+        int minChunkX = ((int) Math.floor(center.getX() - radius)) >> 4;
+        int maxChunkX = ((int) Math.floor(center.getX() + radius)) >> 4;
+        int minChunkZ = ((int) Math.floor(center.getZ() - radius)) >> 4;
+        int maxChunkZ = ((int) Math.floor(center.getZ() + radius)) >> 4;
+
+        // Scan whichever is smaller: the chunks in range or the occupied chunks of the world
+        long chunksInRange = (long) (maxChunkX - minChunkX + 1) * (maxChunkZ - minChunkZ + 1);
+        if (chunksInRange <= index.chunks.size()) {
+            for (int cx = minChunkX; cx <= maxChunkX; cx++) {
+                for (int cz = minChunkZ; cz <= maxChunkZ; cz++) {
+                    collectNear(index.chunks.get(BlockKey.chunk(cx, cz)), center, radiusSquared, result);
+                }
+            }
+        } else {
+            index.chunks.forEach((chunkKey, bucket) -> {
+                int cx = BlockKey.chunkX(chunkKey);
+                int cz = BlockKey.chunkZ(chunkKey);
+                if (cx >= minChunkX && cx <= maxChunkX && cz >= minChunkZ && cz <= maxChunkZ) {
+                    collectNear(bucket, center, radiusSquared, result);
+                }
+            });
+        }
+        return result;
+    }
+
+    private void collectNear(ChunkBucket<V> bucket, Location center, double radiusSquared, List<V> result) {
+        if (bucket == null) {
+            return;
+        }
+        for (int i = 0; i < bucket.size(); i++) {
+            long key = bucket.keyAt(i);
+            double dx = BlockKey.getX(key) + 0.5 - center.getX();
+            double dy = BlockKey.getY(key) + 0.5 - center.getY();
+            double dz = BlockKey.getZ(key) + 0.5 - center.getZ();
+            if (dx * dx + dy * dy + dz * dz <= radiusSquared) {
+                result.add(bucket.get(i));
+            }
+        }
+    }
+
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Get the number of entries in one world
+     */
+    public int size(World world) {
+        if (world == null || size == 0) {
+            return 0;
+        }
+        WorldIndex<V> index = worlds.get(world.getUID());
+        return index != null ? index.blocks.size() : 0;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    /**
+     * Get a snapshot of all values, safe to iterate while modifying the index
+     */
+    public List<V> values() {
+        List<V> result = new ArrayList<>(size);
+        for (WorldIndex<V> index : worlds.values()) {
+            index.blocks.forEachValue(result::add);
+        }
+        return result;
+    }
+
+    /**
+     * Get a snapshot of the values in one world, safe to iterate while modifying the index
+     */
+    public List<V> values(World world) {
+        if (world == null || size == 0) {
+            return new ArrayList<>();
+        }
+        WorldIndex<V> index = worlds.get(world.getUID());
+        return index != null ? index.blocks.values() : new ArrayList<V>();
+    }
+
+    /**
+     * Remove all entries
+     */
+    public void clear() {
+        worlds.clear();
+        Arrays.fill(presence, 0);
+        size = 0;
+    }
+
+    private static int presenceSlot(int chunkX, int chunkZ) {
+        return ((chunkX & PRESENCE_MASK) << PRESENCE_BITS) | (chunkZ & PRESENCE_MASK);
+    }
+
+    /**
+     * Block and chunk maps for one world
+     */
+    private static final class WorldIndex<V> {
+        private final LongObjectMap<V> blocks = new LongObjectMap<>();
+        private final LongObjectMap<ChunkBucket<V>> chunks = new LongObjectMap<>();
+    }
+
+    /**
+     * Values of one chunk with their block keys, exposed as a read-only list
+     */
+    private static final class ChunkBucket<V> extends AbstractList<V> {
+        private long[] keys = new long[2];
+        private Object[] values = new Object[2];
+        private int count = 0;
+
+        private void add(long key, V value) {
+            if (count == keys.length) {
+                keys = Arrays.copyOf(keys, count * 2);
+                values = Arrays.copyOf(values, count * 2);
+            }
+            keys[count] = key;
+            values[count] = value;
+            count++;
+        }
+
+        private void removeKey(long key) {
+            for (int i = 0; i < count; i++) {
+                if (keys[i] == key) {
+                    count--;
+                    keys[i] = keys[count];
+                    values[i] = values[count];
+                    values[count] = null;
+                    return;
+                }
+            }
+        }
+
+        private long keyAt(int index) {
+            return keys[index];
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        public V get(int index) {
+            if (index >= count) {
+                throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + count);
+            }
+            return (V) values[index];
+        }
+
+        @Override
+        public int size() {
+            return count;
+        }
+    }
+}
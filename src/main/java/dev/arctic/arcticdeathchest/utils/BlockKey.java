@@ -0,0 +1,76 @@
+package dev.arctic.arcticdeathchest.utils;
+
+import org.bukkit.Location;
+import org.bukkit.block.Block;
+
+/**
+ * Packs block coordinates into a single {@code long} key.
+ * Layout matches vanilla's block position packing: 26 bits X, 26 bits Z, 12 bits Y,
+ * which covers every world border and build height from 1.7.10 to 1.21+.
+ */
+public final class BlockKey {
+    private static final int XZ_BITS = 26;
+    private static final int Y_BITS = 12;
+    private static final long XZ_MASK = (1L << XZ_BITS) - 1;
+    private static final long Y_MASK = (1L << Y_BITS) - 1;
+    private static final int X_SHIFT = XZ_BITS + Y_BITS;
+    private static final int Z_SHIFT = Y_BITS;
+
+    private BlockKey() {
+    }
+
+    /**
+     * Pack block coordinates into a key
+     */
+    public static long pack(int x, int y, int z) {
+        return ((x & XZ_MASK) << X_SHIFT) | ((z & XZ_MASK) << Z_SHIFT) | (y & Y_MASK);
+    }
+
+    /**
+     * Pack the block coordinates of a location into a key
+     */
+    public static long of(Location location) {
+        return pack(location.getBlockX(), location.getBlockY(), location.getBlockZ());
+    }
+
+    /**
+     * Pack the coordinates of a block into a key
+     */
+    public static long of(Block block) {
+        return pack(block.getX(), block.getY(), block.getZ());
+    }
+
+    public static int getX(long key) {
+        return (int) (key >> X_SHIFT);
+    }
+
+    public static int getY(long key) {
+        return (int) (key << (64 - Y_BITS) >> (64 - Y_BITS));
+    }
+
+    public static int getZ(long key) {
+        return (int) (key << (64 - X_SHIFT) >> (64 - XZ_BITS));
+    }
+
+    /**
+     * Pack chunk coordinates into a chunk key
+     */
+    public static long chunk(int chunkX, int chunkZ) {
+        return ((long) chunkX << 32) | (chunkZ & 0xFFFFFFFFL);
+    }
+
+    /**
+     * Get the chunk key of the chunk containing a packed block key
+     */
+    public static long chunkOf(long blockKey) {
+        return chunk(getX(blockKey) >> 4, getZ(blockKey) >> 4);
+    }
+
+    public static int chunkX(long chunkKey) {
+        return (int) (chunkKey >> 32);
+    }
+
+    public static int chunkZ(long chunkKey) {
+        return (int) chunkKey;
+    }
+}
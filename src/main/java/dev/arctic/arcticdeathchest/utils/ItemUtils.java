@@ -0,0 +1,93 @@
+package dev.arctic.arcticdeathchest.utils;
+
+import org.bukkit.Material;
+import org.bukkit.inventory.ItemStack;
+
+import java.util.List;
+
+/**
+ * Utility methods for working with item stacks
+ */
+public class ItemUtils {
+    // Stacks at list positions below this are tracked in a bitmask; later positions are always copied on merge
+    private static final int TRACKED_POSITIONS = 64;
+
+    private ItemUtils() {}
+
+    /**
+     * Check if an inventory's contents hold no items
+     */
+    public static boolean isEmpty(ItemStack[] contents) {
+        for (ItemStack item : contents) {
+            if (item != null && item.getType() != Material.AIR && item.getAmount() > 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Merge similar stacks up to their max stack size, in place.
+     * Null, air and empty stacks are removed and the order of first appearance is kept.
+     * Stacks from the caller are never modified: a stack is copied the first time its
+     * amount changes, so merging allocates only for the stacks it actually changes.
+     * @param stacks the stacks to merge (must be modifiable)
+     */
+    public static void coalesce(List<ItemStack> stacks) {
+        int count = stacks.size();
+        int kept = 0;
+        long owned = 0L;
+
+        for (int i = 0; i < count; i++) {
+            ItemStack item = stacks.get(i);
+            if (item == null || item.getType() == Material.AIR || item.getAmount() <= 0) {
+                continue;
+            }
+
+            Material type = item.getType();
+            int amount = item.getAmount();
+            int maxStack = item.getMaxStackSize();
+
+            // Top up earlier stacks of the same kind first
+            for (int j = 0; j < kept && amount > 0; j++) {
+                ItemStack target = stacks.get(j);
+                int space = maxStack - target.getAmount();
+                if (space <= 0 || target.getType() != type || !target.isSimilar(item)) {
+                    continue;
+                }
+
+                if (j >= TRACKED_POSITIONS || (owned & (1L << j)) == 0) {
+                    target = target.clone();
+                    stacks.set(j, target);
+                    if (j < TRACKED_POSITIONS) {
+                        owned |= 1L << j;
+                    }
+                }
+
+                int moved = Math.min(space, amount);
+                target.setAmount(target.getAmount() + moved);
+                amount -= moved;
+            }
+
+            if (amount <= 0) {
+                continue;
+            }
+
+            if (amount != item.getAmount()) {
+                item = item.clone();
+                item.setAmount(amount);
+                if (kept < TRACKED_POSITIONS) {
+                    owned |= 1L << kept;
+                }
+            } else if (kept < TRACKED_POSITIONS) {
+                owned &= ~(1L << kept);
+            }
+            stacks.set(kept++, item);
+        }
+
+        // Drop the tail left over after compaction
+        for (int i = count - 1; i >= kept; i--) {
+            stacks.remove(i);
+        }
+    }
+}
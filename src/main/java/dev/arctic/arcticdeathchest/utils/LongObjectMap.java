@@ -0,0 +1,219 @@
+package dev.arctic.arcticdeathchest.utils;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * Open-addressing hash map from primitive {@code long} keys to objects.
+ * Uses linear probing with backward-shift deletion, so lookups never box the key
+ * and never allocate. Not thread-safe: all calls must happen on the server main thread.
+ *
+ * @param <V> the value type
+ */
+public class LongObjectMap<V> {
+    private static final float LOAD_FACTOR = 0.6f;
+
+    private long[] keys;
+    private V[] values;
+    private int mask;
+    private int size;
+    private int resizeAt;
+
+    public LongObjectMap() {
+        this(16);
+    }
+
+    /**
+     * Create a map sized for the given number of entries
+     * @param expectedSize number of entries the map should hold without resizing
+     */
+    public LongObjectMap(int expectedSize) {
+        int capacity = 8;
+        while (capacity * LOAD_FACTOR < expectedSize) {
+            capacity <<= 1;
+        }
+        allocate(capacity);
+    }
+
+    /**
+     * Get the value for a key
+     * @return the value, or null if the key is not present
+     */
+    public V get(long key) {
+        int index = mix(key) & mask;
+        V value;
+        while ((value = values[index]) != null) {
+            if (keys[index] == key) {
+                return value;
+            }
+            index = (index + 1) & mask;
+        }
+        return null;
+    }
+
+    /**
+     * Check if a key is present
+     */
+    public boolean containsKey(long key) {
+        return get(key) != null;
+    }
+
+    /**
+     * Associate a value with a key
+     * @param value the value, must not be null
+     * @return the previous value, or null if there was none
+     */
+    public V put(long key, V value) {
+        if (value == null) {
+            throw new IllegalArgumentException("LongObjectMap does not accept null values");
+        }
+
+        int index = mix(key) & mask;
+        V existing;
+        while ((existing = values[index]) != null) {
+            if (keys[index] == key) {
+                values[index] = value;
+                return existing;
+            }
+            index = (index + 1) & mask;
+        }
+
+        keys[index] = key;
+        values[index] = value;
+        if (++size >= resizeAt) {
+            rehash(values.length << 1);
+        }
+        return null;
+    }
+
+    /**
+     * Remove the value for a key
+     * @return the removed value, or null if the key was not present
+     */
+    public V remove(long key) {
+        int index = mix(key) & mask;
+        V value;
+        while ((value = values[index]) != null) {
+            if (keys[index] == key) {
+                shiftBack(index);
+                size--;
+                return value;
+            }
+            index = (index + 1) & mask;
+        }
+        return null;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    /**
+     * Remove all entries
+     */
+    public void clear() {
+        if (size == 0) {
+            return;
+        }
+        Arrays.fill(values, null);
+        size = 0;
+    }
+
+    /**
+     * Call an action for every value in the map (the map must not be modified meanwhile)
+     */
+    public void forEachValue(Consumer<? super V> action) {
+        for (V value : values) {
+            if (value != null) {
+                action.accept(value);
+            }
+        }
+    }
+
+    /**
+     * Call an action for every entry in the map (the map must not be modified meanwhile)
+     */
+    public void forEach(EntryConsumer<? super V> action) {
+        for (int i = 0; i < values.length; i++) {
+            V value = values[i];
+            if (value != null) {
+                action.accept(keys[i], value);
+            }
+        }
+    }
+
+    /**
+     * Get a snapshot of all values, safe to iterate while modifying the map
+     */
+    public List<V> values() {
+        List<V> result = new ArrayList<>(size);
+        forEachValue(result::add);
+        return result;
+    }
+
+    /**
+     * Close the gap left at {@code index} by moving later entries of the probe chain back
+     */
+    private void shiftBack(int index) {
+        int gap = index;
+        int next = (gap + 1) & mask;
+        while (values[next] != null) {
+            int home = mix(keys[next]) & mask;
+            // Move the entry if its home slot is not within (gap, next]
+            if (((next - home) & mask) >= ((next - gap) & mask)) {
+                keys[gap] = keys[next];
+                values[gap] = values[next];
+                gap = next;
+            }
+            next = (next + 1) & mask;
+        }
+        values[gap] = null;
+    }
+
+    @SuppressWarnings("unchecked")
+    private void allocate(int capacity) {
+        keys = new long[capacity];
+        values = (V[]) new Object[capacity];
+        mask = capacity - 1;
+        resizeAt = (int) (capacity * LOAD_FACTOR);
+    }
+
+    private void rehash(int capacity) {
+        long[] oldKeys = keys;
+        V[] oldValues = values;
+        allocate(capacity);
+        for (int i = 0; i < oldValues.length; i++) {
+            V value = oldValues[i];
+            if (value != null) {
+                int index = mix(oldKeys[i]) & mask;
+                while (values[index] != null) {
+                    index = (index + 1) & mask;
+                }
+                keys[index] = oldKeys[i];
+                values[index] = value;
+            }
+        }
+    }
+
+    /**
+     * Spread the key bits so packed coordinates do not cluster in the low slots
+     */
+    private static int mix(long key) {
+        long h = key * 0x9E3779B97F4A7C15L;
+        return (int) (h ^ (h >>> 32));
+    }
+
+    /**
+     * Callback for {@link #forEach(EntryConsumer)} that receives the primitive key
+     */
+    @FunctionalInterface
+    public interface EntryConsumer<V> {
+        void accept(long key, V value);
+    }
+}
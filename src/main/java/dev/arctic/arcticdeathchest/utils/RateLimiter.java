@@ -0,0 +1,65 @@
+package dev.arctic.arcticdeathchest.utils;
+
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+
+/**
+ * Sliding-window rate limiter: at most {@code limit} events per key within a time window.
+ * Each key keeps a ring buffer of its last {@code limit} event times, so a check is a single
+ * comparison against the oldest of them. Not thread-safe.
+ * @param <K> the key type
+ */
+public class RateLimiter<K> {
+    private final Map<K, Window> windows = new HashMap<>();
+
+    /**
+     * Record an event and check if it is within the limit. Events over the limit are recorded
+     * too, so a key stays limited for as long as the events keep coming.
+     * @param key the key the event belongs to
+     * @param now the event time (ms)
+     * @param limit the most events allowed within the window
+     * @param windowMillis the window length (ms)
+     * @return true if this event is within the limit
+     */
+    public boolean tryAcquire(K key, long now, int limit, long windowMillis) {
+        Window window = windows.get(key);
+        if (window == null || window.times.length != limit) {
+            window = new Window(limit);
+            windows.put(key, window);
+        }
+
+        // The slot about to be overwritten holds the oldest of the last `limit` events
+        long oldest = window.times[window.next];
+        boolean allowed = window.count < limit || now - oldest >= windowMillis;
+
+        window.times[window.next] = now;
+        window.next = (window.next + 1) % limit;
+        window.count = Math.min(window.count + 1, limit);
+        window.latest = now;
+        return allowed;
+    }
+
+    /**
+     * Forget keys without an event in the last window
+     */
+    public void prune(long now, long windowMillis) {
+        Iterator<Window> iterator = windows.values().iterator();
+        while (iterator.hasNext()) {
+            if (now - iterator.next().latest >= windowMillis) {
+                iterator.remove();
+            }
+        }
+    }
+
+    private static final class Window {
+        private final long[] times;
+        private int next;
+        private int count;
+        private long latest;
+
+        private Window(int limit) {
+            this.times = new long[limit];
+        }
+    }
+}
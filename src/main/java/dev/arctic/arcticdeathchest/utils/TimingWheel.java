@@ -0,0 +1,171 @@
+package dev.arctic.arcticdeathchest.utils;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * Hashed timing wheel for coarse-grained timeouts.
+ * A single repeating task calls {@link #advance()} once per wheel tick, and every
+ * scheduled entry costs O(1) to add or cancel regardless of how far away it is.
+ * Not thread-safe: all calls must happen on the server main thread.
+ *
+ * @param <T> the value handed to the expiry handler
+ */
+public class TimingWheel<T> {
+    private final Timeout<T>[] slots;
+    private final int mask;
+    private final Consumer<T> onExpire;
+    private final List<Timeout<T>> expired = new ArrayList<>();
+
+    private long tick = 0;
+
+    /**
+     * Create a new timing wheel
+     * @param slotCount number of slots, rounded up to a power of two
+     * @param onExpire handler called on the main thread for every expired entry
+     */
+    @SuppressWarnings("unchecked")
+    public TimingWheel(int slotCount, Consumer<T> onExpire) {
+        int capacity = 2;
+        while (capacity < slotCount) {
+            capacity <<= 1;
+        }
+        this.slots = (Timeout<T>[]) new Timeout[capacity];
+        this.mask = capacity - 1;
+        this.onExpire = onExpire;
+    }
+
+    /**
+     * Schedule a value to expire after the given number of wheel ticks
+     * @param value the value passed to the expiry handler
+     * @param delay delay in wheel ticks (values below 1 fire on the next tick)
+     * @return handle that can be used to cancel the timeout
+     */
+    public Timeout<T> schedule(T value, long delay) {
+        Timeout<T> timeout = new Timeout<>(this, value, tick + Math.max(1L, delay));
+        link(timeout);
+        return timeout;
+    }
+
+    /**
+     * Advance the wheel by one tick and fire every entry that is now due
+     */
+    public void advance() {
+        tick++;
+        int index = (int) (tick & mask);
+
+        // Collect first so handlers can freely schedule or cancel other entries
+        Timeout<T> entry = slots[index];
+        while (entry != null) {
+            Timeout<T> next = entry.next;
+            if (entry.deadline <= tick) {
+                unlink(entry);
+                expired.add(entry);
+            }
+            entry = next;
+        }
+
+        if (expired.isEmpty()) {
+            return;
+        }
+
+        try {
+            for (Timeout<T> timeout : expired) {
+                if (!timeout.cancelled) {
+                    timeout.fired = true;
+                    onExpire.accept(timeout.value);
+                }
+            }
+        } finally {
+            expired.clear();
+        }
+    }
+
+    /**
+     * Get the current wheel tick
+     */
+    public long getTick() {
+        return tick;
+    }
+
+    /**
+     * Drop every pending timeout without firing it
+     */
+    public void clear() {
+        for (int i = 0; i < slots.length; i++) {
+            Timeout<T> entry = slots[i];
+            while (entry != null) {
+                Timeout<T> next = entry.next;
+                entry.cancelled = true;
+                entry.linked = false;
+                entry.prev = null;
+                entry.next = null;
+                entry = next;
+            }
+            slots[i] = null;
+        }
+    }
+
+    private void link(Timeout<T> timeout) {
+        int index = (int) (timeout.deadline & mask);
+        Timeout<T> head = slots[index];
+        timeout.next = head;
+        if (head != null) {
+            head.prev = timeout;
+        }
+        slots[index] = timeout;
+        timeout.linked = true;
+    }
+
+    private void unlink(Timeout<T> timeout) {
+        if (!timeout.linked) {
+            return;
+        }
+        if (timeout.prev != null) {
+            timeout.prev.next = timeout.next;
+        } else {
+            slots[(int) (timeout.deadline & mask)] = timeout.next;
+        }
+        if (timeout.next != null) {
+            timeout.next.prev = timeout.prev;
+        }
+        timeout.prev = null;
+        timeout.next = null;
+        timeout.linked = false;
+    }
+
+    /**
+     * Handle for a scheduled entry, linked intrusively into its wheel slot
+     */
+    public static final class Timeout<T> {
+        private final TimingWheel<T> wheel;
+        private final T value;
+        private final long deadline;
+
+        private Timeout<T> prev;
+        private Timeout<T> next;
+        private boolean linked;
+        private boolean cancelled;
+        private boolean fired;
+
+        private Timeout(TimingWheel<T> wheel, T value, long deadline) {
+            this.wheel = wheel;
+            this.value = value;
+            this.deadline = deadline;
+        }
+
+        /**
+         * Cancel this timeout
+         * @return true if the timeout was pending and is now cancelled
+         */
+        public boolean cancel() {
+            if (cancelled || fired) {
+                return false;
+            }
+            cancelled = true;
+            wheel.unlink(this);
+            return true;
+        }
+    }
+}
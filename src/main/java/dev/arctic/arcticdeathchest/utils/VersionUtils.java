@@ -5,7 +5,9 @@ import org.bukkit.Material;
 import org.bukkit.Sound;
 import org.bukkit.entity.FallingBlock;
 import org.bukkit.Location;
+import org.bukkit.inventory.Inventory;
 
+import java.lang.reflect.Method;
 import java.util.logging.Logger;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
@@ -31,9 +33,20 @@ public class VersionUtils {
     private static Boolean supportsArmorStands = null;
     private static Boolean supportsArmorStandMarker = null;
     
-    // Parse version once on load
+    // Inventory.getLocation() only exists on newer servers; looked up once, null where it is missing
+    private static Method inventoryGetLocation = null;
+    private static boolean inventoryGetLocationResolved = false;
+    
+    // Material classification, indexed by Material.ordinal() of the running server
+    private static boolean[] liquidMaterials;
+    private static boolean[] solidMaterials;
+    private static boolean[] replaceableMaterials;
+    private static boolean[] freeForChestMaterials;
+    
+    // Parse version and classify materials once on load
     static {
         parseVersion();
+        buildMaterialTables();
     }
     
     /**
@@ -64,6 +77,43 @@ public class VersionUtils {
         }
     }
     
+    /**
+     * Classify every material of the running server once, so the checks used while
+     * scanning for a chest location are a single array read
+     */
+    private static void buildMaterialTables() {
+        Material[] materials = Material.values();
+        liquidMaterials = new boolean[materials.length];
+        solidMaterials = new boolean[materials.length];
+        replaceableMaterials = new boolean[materials.length];
+        freeForChestMaterials = new boolean[materials.length];
+        
+        for (Material material : materials) {
+            String name = material.name();
+            // Blocks in the world never have a legacy material on 1.13+
+            if (name.startsWith("LEGACY_")) {
+                continue;
+            }
+            
+            int index = material.ordinal();
+            boolean liquid = name.contains("WATER") || name.contains("LAVA");
+            boolean solid;
+            try {
+                solid = material.isSolid() && !liquid;
+            } catch (Exception e) {
+                solid = false;
+            }
+            boolean replaceable = name.contains("GRASS") || name.contains("FLOWER") ||
+                    name.contains("TALL_") || name.equals("SNOW") ||
+                    name.contains("MUSHROOM") || material == Material.AIR;
+            
+            liquidMaterials[index] = liquid;
+            solidMaterials[index] = solid;
+            replaceableMaterials[index] = replaceable;
+            freeForChestMaterials[index] = material == Material.AIR || (!solid && !liquid && replaceable);
+        }
+    }
+    
     /**
      * Check if running on at least the specified version
      */
@@ -235,6 +285,32 @@ public class VersionUtils {
         }
     }
     
+    /**
+     * Get the location of a block inventory without building a BlockState for its holder
+     * @return the location, or null if the server has no Inventory.getLocation() or the inventory has no location
+     */
+    public static Location getInventoryLocation(Inventory inventory) {
+        if (!inventoryGetLocationResolved) {
+            try {
+                inventoryGetLocation = Inventory.class.getMethod("getLocation");
+            } catch (NoSuchMethodException e) {
+                // Not available on this version
+                inventoryGetLocation = null;
+            }
+            inventoryGetLocationResolved = true;
+        }
+        
+        if (inventoryGetLocation == null || inventory == null) {
+            return null;
+        }
+        
+        try {
+            return (Location) inventoryGetLocation.invoke(inventory);
+        } catch (Exception e) {
+            return null;
+        }
+    }
+    
     /**
      * Get a safe spawn location for a chest (avoid water, lava, air with no support)
      */
@@ -285,28 +361,28 @@ public class VersionUtils {
      * Check if a material is a liquid
      */
     private static boolean isLiquid(Material material) {
-        if (material == null) return false;
-        String name = material.name();
-        return name.contains("WATER") || name.contains("LAVA");
+        return material != null && liquidMaterials[material.ordinal()];
     }
     
     /**
      * Check if a material is solid (can support a chest)
      */
     private static boolean isSolid(Material material) {
-        if (material == null) return false;
-        return material.isSolid() && !isLiquid(material);
+        return material != null && solidMaterials[material.ordinal()];
     }
     
     /**
      * Check if a material can be replaced by a chest
      */
     private static boolean isReplaceable(Material material) {
-        if (material == null) return false;
-        String name = material.name();
-        return name.contains("GRASS") || name.contains("FLOWER") || 
-               name.contains("TALL_") || name.equals("SNOW") || 
-               name.contains("MUSHROOM") || material == Material.AIR;
+        return material != null && replaceableMaterials[material.ordinal()];
+    }
+    
+    /**
+     * Check if an extra chest can be placed in a block without destroying anything solid
+     */
+    public static boolean isFreeForChest(Material material) {
+        return material != null && freeForChestMaterials[material.ordinal()];
     }
     
     /**
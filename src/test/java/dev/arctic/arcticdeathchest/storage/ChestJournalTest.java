@@ -0,0 +1,228 @@
+package dev.arctic.arcticdeathchest.storage;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.stream.Stream;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertTrue;
+
+public class ChestJournalTest {
+    private static final UUID WORLD = UUID.randomUUID();
+    private static final UUID OWNER = UUID.randomUUID();
+
+    private Path folder;
+    private File file;
+
+    @Before
+    public void setUp() throws IOException {
+        folder = Files.createTempDirectory("chest-journal");
+        file = new File(folder.toFile(), "chests.journal");
+    }
+
+    @After
+    public void tearDown() throws IOException {
+        try (Stream<Path> paths = Files.walk(folder)) {
+            paths.sorted(Comparator.reverseOrder()).map(Path::toFile).forEach(File::delete);
+        }
+    }
+
+    @Test
+    public void replaysEveryRecordType() throws IOException {
+        ChestJournal journal = new ChestJournal(file);
+        assertTrue(journal.open().isEmpty());
+        journal.logCreate(chest(1L, new byte[]{1}));
+        journal.logCreate(chest(2L, new byte[]{2}));
+        journal.logCreate(chest(3L, new byte[]{3}));
+        journal.logUpdate(WORLD, 1L, new byte[]{4, 5}, true);
+        journal.logExpiry(WORLD, 1L, 5000L);
+        journal.logExperience(WORLD, 1L, 7);
+        journal.logFreeze(WORLD, 2L, 1234L);
+        journal.logRemove(WORLD, 3L);
+        journal.close();
+
+        Map<Long, StoredChest> restored = reopen();
+        assertEquals(2, restored.size());
+
+        StoredChest first = restored.get(1L);
+        assertArrayEquals(new byte[]{4, 5}, first.getItems());
+        assertTrue(first.isStashed());
+        assertEquals(5000L, first.getExpiresAt());
+        assertEquals(-1L, first.getFrozenMillis());
+        assertEquals(7, first.getExperience());
+        assertEquals(OWNER, first.getOwnerUuid());
+        assertEquals("Owner", first.getOwnerName());
+        assertEquals(2, first.getChestCount());
+
+        StoredChest second = restored.get(2L);
+        assertEquals(1234L, second.getFrozenMillis());
+        assertFalse(second.isStashed());
+    }
+
+    @Test
+    public void expiryRecordEndsAFreeze() throws IOException {
+        ChestJournal journal = new ChestJournal(file);
+        journal.open();
+        journal.logCreate(chest(1L, new byte[0]));
+        journal.logFreeze(WORLD, 1L, 1000L);
+        journal.logExpiry(WORLD, 1L, 9000L);
+        journal.close();
+
+        StoredChest chest = reopen().get(1L);
+        assertEquals(-1L, chest.getFrozenMillis());
+        assertEquals(9000L, chest.getExpiresAt());
+    }
+
+    @Test
+    public void tornTailIsCutOffAndTheJournalKeepsWorking() throws IOException {
+        ChestJournal journal = new ChestJournal(file);
+        journal.open();
+        journal.logCreate(chest(1L, new byte[]{1}));
+        journal.close();
+        long validLength = file.length();
+
+        // A crash in the middle of a write: a frame header announcing more bytes than follow
+        try (RandomAccessFile out = new RandomAccessFile(file, "rw")) {
+            out.seek(out.length());
+            out.writeInt(100);
+            out.write(new byte[]{2, 0, 0, 0, 1});
+        }
+
+        journal = new ChestJournal(file);
+        assertEquals(1, journal.open().size());
+        assertEquals(validLength, file.length());
+        journal.logCreate(chest(2L, new byte[]{2}));
+        journal.close();
+
+        Map<Long, StoredChest> restored = reopen();
+        assertEquals(2, restored.size());
+        assertArrayEquals(new byte[]{2}, restored.get(2L).getItems());
+    }
+
+    @Test
+    public void frameWithABadChecksumEndsReplay() throws IOException {
+        ChestJournal journal = new ChestJournal(file);
+        journal.open();
+        journal.logCreate(chest(1L, new byte[]{1}));
+        journal.close();
+        long validLength = file.length();
+
+        journal = new ChestJournal(file);
+        journal.open();
+        journal.logCreate(chest(2L, new byte[]{2, 2, 2}));
+        journal.logCreate(chest(3L, new byte[]{3}));
+        journal.close();
+
+        // Flip a byte inside the payload of the second chest's frame
+        try (RandomAccessFile out = new RandomAccessFile(file, "rw")) {
+            out.seek(validLength + 4 + 20);
+            int value = out.read();
+            out.seek(validLength + 4 + 20);
+            out.write(value ^ 0xFF);
+        }
+
+        Map<Long, StoredChest> restored = reopen();
+        assertEquals(1, restored.size());
+        assertNotNull(restored.get(1L));
+        assertEquals(validLength, file.length());
+    }
+
+    @Test
+    public void unknownFormatIsMovedAside() throws IOException {
+        Files.write(file.toPath(), "not a journal".getBytes("UTF-8"));
+
+        ChestJournal journal = new ChestJournal(file);
+        assertTrue(journal.open().isEmpty());
+        journal.close();
+
+        File[] moved = folder.toFile().listFiles((dir, name) -> name.startsWith("chests.journal.corrupt-"));
+        assertNotNull(moved);
+        assertEquals(1, moved.length);
+        assertArrayEquals("not a journal".getBytes("UTF-8"), Files.readAllBytes(moved[0].toPath()));
+    }
+
+    @Test
+    public void compactionKeepsTheLiveChests() throws IOException {
+        ChestJournal journal = new ChestJournal(file);
+        journal.open();
+        journal.logCreate(chest(1L, new byte[]{1}));
+        journal.logCreate(chest(2L, new byte[]{2}));
+
+        // Enough rewrites of one chest to pass the compaction threshold several times over
+        for (int i = 0; i < 64; i++) {
+            byte[] items = new byte[64 * 1024];
+            items[0] = (byte) i;
+            journal.logUpdate(WORLD, 1L, items, false);
+        }
+        journal.logRemove(WORLD, 2L);
+        journal.close();
+
+        assertTrue(new File(file.getPath() + ".snapshot").exists());
+        assertTrue(file.length() < 1024L * 1024L);
+
+        Map<Long, StoredChest> restored = reopen();
+        assertEquals(1, restored.size());
+        assertEquals(64 * 1024, restored.get(1L).getItems().length);
+        assertEquals((byte) 63, restored.get(1L).getItems()[0]);
+    }
+
+    @Test
+    public void flushConfirmsDurabilityOnlyWhileOpen() throws IOException {
+        ChestJournal journal = new ChestJournal(file);
+        assertFalse(journal.flush(100L));
+
+        journal.open();
+        journal.logCreate(chest(1L, new byte[]{1}));
+        assertTrue(journal.flush(5000L));
+
+        // Flushed means on disk: a copy of the file taken now already holds the chest
+        ChestJournal copy = copyOf(file);
+        assertEquals(1, copy.open().size());
+        copy.close();
+
+        journal.close();
+        assertFalse(journal.flush(100L));
+    }
+
+    /**
+     * Open a copy of a journal file that is still in use, so the original is left alone
+     */
+    private ChestJournal copyOf(File source) throws IOException {
+        File copy = new File(folder.toFile(), "copy.journal");
+        Files.copy(source.toPath(), copy.toPath());
+        return new ChestJournal(copy);
+    }
+
+    private Map<Long, StoredChest> reopen() throws IOException {
+        ChestJournal journal = new ChestJournal(file);
+        List<StoredChest> chests = journal.open();
+        journal.close();
+
+        Map<Long, StoredChest> byKey = new HashMap<>();
+        for (StoredChest chest : chests) {
+            byKey.put(chest.getBlockKey(), chest);
+        }
+        return byKey;
+    }
+
+    private static StoredChest chest(long blockKey, byte[] items) {
+        return new StoredChest(OWNER, "Owner", WORLD, blockKey, 1000L, 61000L, -1L,
+            Arrays.copyOf(items, items.length), 2, 0, false);
+    }
+}
@@ -0,0 +1,147 @@
+package dev.arctic.arcticdeathchest.utils;
+
+import org.bukkit.Location;
+import org.bukkit.World;
+import org.junit.Test;
+
+import java.lang.reflect.Proxy;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+public class BlockIndexTest {
+    private final World world = world();
+    private final World otherWorld = world();
+
+    @Test
+    public void putGetAndRemoveByBlockPosition() {
+        BlockIndex<String> index = new BlockIndex<>();
+        assertNull(index.put(at(world, 10.7, 64, -3.2), "a"));
+
+        // Any position inside the block finds it
+        assertEquals("a", index.get(at(world, 10, 64, -4)));
+        assertEquals("a", index.get(at(world, 10.99, 64.5, -3.01)));
+        assertNull(index.get(at(world, 10, 65, -4)));
+        assertNull(index.get(at(otherWorld, 10, 64, -4)));
+
+        assertEquals("a", index.remove(at(world, 10, 64, -4)));
+        assertNull(index.get(at(world, 10, 64, -4)));
+        assertTrue(index.isEmpty());
+    }
+
+    @Test
+    public void replacingKeepsOneEntry() {
+        BlockIndex<String> index = new BlockIndex<>();
+        index.put(at(world, 1, 2, 3), "a");
+        assertEquals("a", index.put(at(world, 1, 2, 3), "b"));
+        assertEquals(1, index.size());
+        assertEquals(Arrays.asList("b"), index.getInChunk(world, 0, 0));
+    }
+
+    @Test
+    public void groupsEntriesByChunkIncludingNegativeChunks() {
+        BlockIndex<String> index = new BlockIndex<>();
+        index.put(at(world, 0, 64, 0), "origin");
+        index.put(at(world, 15, 64, 15), "same chunk");
+        index.put(at(world, -1, 64, -1), "negative");
+        index.put(at(world, -16, 64, -17), "further");
+
+        assertEquals(new HashSet<>(Arrays.asList("origin", "same chunk")), new HashSet<>(index.getInChunk(world, 0, 0)));
+        assertEquals(Arrays.asList("negative"), index.getInChunk(world, -1, -1));
+        assertEquals(Arrays.asList("further"), index.getInChunk(world, -1, -2));
+        assertTrue(index.getInChunk(otherWorld, 0, 0).isEmpty());
+        assertFalse(index.hasChunk(world, 1, 0));
+    }
+
+    @Test
+    public void removingTheLastEntryOfAChunkEmptiesIt() {
+        BlockIndex<String> index = new BlockIndex<>();
+        index.put(at(world, 5, 64, 5), "a");
+        index.put(at(world, 6, 64, 5), "b");
+        index.remove(at(world, 5, 64, 5));
+        assertEquals(Arrays.asList("b"), index.getInChunk(world, 0, 0));
+        index.remove(at(world, 6, 64, 5));
+        assertFalse(index.hasChunk(world, 0, 0));
+        assertFalse(index.mightContain(0, 0));
+    }
+
+    @Test
+    public void presenceTableNeverHidesAnEntry() {
+        // Chunks 64 apart fold onto the same presence cell
+        BlockIndex<String> index = new BlockIndex<>();
+        index.put(at(world, 64 * 16, 64, 0), "far");
+        assertTrue(index.mightContain(0, 0));
+        assertNull(index.get(at(world, 0, 64, 0)));
+        assertEquals("far", index.get(at(world, 64 * 16, 64, 0)));
+    }
+
+    @Test
+    public void countsEntriesPerWorld() {
+        BlockIndex<String> index = new BlockIndex<>();
+        index.put(at(world, 0, 64, 0), "a");
+        index.put(at(world, 100, 64, 100), "b");
+        index.put(at(otherWorld, 0, 64, 0), "c");
+
+        assertEquals(3, index.size());
+        assertEquals(2, index.size(world));
+        assertEquals(1, index.size(otherWorld));
+        assertEquals(new HashSet<>(Arrays.asList("a", "b")), new HashSet<>(index.values(world)));
+        assertEquals(3, index.values().size());
+    }
+
+    @Test
+    public void findsEntriesWithinARadius() {
+        BlockIndex<String> index = new BlockIndex<>();
+        index.put(at(world, 0, 64, 0), "center");
+        index.put(at(world, 10, 64, 0), "ten");
+        index.put(at(world, -40, 64, -40), "far");
+        index.put(at(otherWorld, 1, 64, 1), "other world");
+
+        List<String> near = index.getNear(at(world, 0.5, 64.5, 0.5), 12);
+        assertEquals(new HashSet<>(Arrays.asList("center", "ten")), new HashSet<>(near));
+        assertEquals(Arrays.asList("center"), index.getNear(at(world, 0.5, 64.5, 0.5), 5));
+        assertEquals(3, index.getNear(at(world, 0, 64, 0), 100).size());
+    }
+
+    @Test
+    public void clearRemovesEverything() {
+        BlockIndex<String> index = new BlockIndex<>();
+        index.put(at(world, 0, 64, 0), "a");
+        index.clear();
+        assertTrue(index.isEmpty());
+        assertNull(index.get(at(world, 0, 64, 0)));
+        assertFalse(index.mightContain(0, 0));
+    }
+
+    private static Location at(World world, double x, double y, double z) {
+        return new Location(world, x, y, z);
+    }
+
+    /**
+     * A world that only knows its UID, which is all the index asks for
+     */
+    private static World world() {
+        UUID id = UUID.randomUUID();
+        return (World) Proxy.newProxyInstance(World.class.getClassLoader(), new Class<?>[]{World.class},
+            (proxy, method, args) -> {
+                switch (method.getName()) {
+                    case "getUID":
+                        return id;
+                    case "hashCode":
+                        return id.hashCode();
+                    case "equals":
+                        return proxy == args[0];
+                    case "toString":
+                        return "World " + id;
+                    default:
+                        throw new UnsupportedOperationException(method.getName());
+                }
+            });
+    }
+}
@@ -0,0 +1,68 @@
+package dev.arctic.arcticdeathchest.utils;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotEquals;
+
+public class BlockKeyTest {
+
+    @Test
+    public void packRoundTripsPositiveCoordinates() {
+        assertRoundTrip(0, 0, 0);
+        assertRoundTrip(1, 64, 1);
+        assertRoundTrip(12345, 255, 67890);
+    }
+
+    @Test
+    public void packRoundTripsNegativeCoordinates() {
+        assertRoundTrip(-1, 64, -1);
+        assertRoundTrip(-16, -64, -17);
+        assertRoundTrip(-12345, -1, 67890);
+        assertRoundTrip(12345, 5, -67890);
+    }
+
+    @Test
+    public void packRoundTripsWorldBorderAndBuildLimits() {
+        // Vanilla world border and the 1.18+ build height range
+        assertRoundTrip(30_000_000, 319, 30_000_000);
+        assertRoundTrip(-30_000_000, -64, -30_000_000);
+        assertRoundTrip(30_000_000, -64, -30_000_000);
+        assertRoundTrip(-30_000_000, 319, 30_000_000);
+    }
+
+    @Test
+    public void neighbouringBlocksGetDistinctKeys() {
+        long key = BlockKey.pack(-1, -1, -1);
+        assertNotEquals(key, BlockKey.pack(0, -1, -1));
+        assertNotEquals(key, BlockKey.pack(-1, 0, -1));
+        assertNotEquals(key, BlockKey.pack(-1, -1, 0));
+        assertNotEquals(BlockKey.pack(1, 0, 0), BlockKey.pack(0, 0, 1));
+    }
+
+    @Test
+    public void chunkOfMatchesShiftedBlockCoordinates() {
+        int[][] blocks = {{0, 0}, {15, 15}, {16, -1}, {-1, -16}, {-17, 31}, {-30_000_000, 30_000_000}};
+        for (int[] block : blocks) {
+            long chunkKey = BlockKey.chunkOf(BlockKey.pack(block[0], 70, block[1]));
+            assertEquals(block[0] >> 4, BlockKey.chunkX(chunkKey));
+            assertEquals(block[1] >> 4, BlockKey.chunkZ(chunkKey));
+            assertEquals(BlockKey.chunk(block[0] >> 4, block[1] >> 4), chunkKey);
+        }
+    }
+
+    @Test
+    public void chunkRoundTripsNegativeCoordinates() {
+        long key = BlockKey.chunk(-1, -2);
+        assertEquals(-1, BlockKey.chunkX(key));
+        assertEquals(-2, BlockKey.chunkZ(key));
+        assertNotEquals(BlockKey.chunk(-1, 0), BlockKey.chunk(0, -1));
+    }
+
+    private static void assertRoundTrip(int x, int y, int z) {
+        long key = BlockKey.pack(x, y, z);
+        assertEquals("x of " + x + "," + y + "," + z, x, BlockKey.getX(key));
+        assertEquals("y of " + x + "," + y + "," + z, y, BlockKey.getY(key));
+        assertEquals("z of " + x + "," + y + "," + z, z, BlockKey.getZ(key));
+    }
+}
@@ -0,0 +1,140 @@
+package dev.arctic.arcticdeathchest.utils;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+public class LongObjectMapTest {
+
+    @Test
+    public void putGetAndReplace() {
+        LongObjectMap<String> map = new LongObjectMap<>();
+        assertNull(map.put(1L, "a"));
+        assertNull(map.put(-1L, "b"));
+        assertEquals("a", map.put(1L, "c"));
+
+        assertEquals("c", map.get(1L));
+        assertEquals("b", map.get(-1L));
+        assertNull(map.get(2L));
+        assertEquals(2, map.size());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void nullValuesAreRejected() {
+        new LongObjectMap<String>().put(1L, null);
+    }
+
+    @Test
+    public void removeReturnsValueAndShrinks() {
+        LongObjectMap<String> map = new LongObjectMap<>();
+        map.put(7L, "seven");
+        assertEquals("seven", map.remove(7L));
+        assertNull(map.remove(7L));
+        assertFalse(map.containsKey(7L));
+        assertTrue(map.isEmpty());
+    }
+
+    @Test
+    public void removeKeepsTheRestOfEveryProbeChainReachable() {
+        // 75 entries in 128 slots, one below the resize threshold, so probe chains are as long as they get
+        LongObjectMap<Long> map = new LongObjectMap<>(64);
+        List<Long> keys = new ArrayList<>();
+        for (int i = 0; keys.size() < 75; i++) {
+            long key = BlockKey.pack(i % 9 - 4, 64, i / 9 - 4);
+            keys.add(key);
+            map.put(key, key);
+        }
+
+        // Remove every third key, checking after each removal that all remaining keys are still found
+        for (int removed = 0; removed < keys.size(); removed += 3) {
+            assertEquals(keys.get(removed), map.remove(keys.get(removed)));
+            for (int i = 0; i < keys.size(); i++) {
+                boolean gone = i % 3 == 0 && i <= removed;
+                assertEquals(gone ? null : keys.get(i), map.get(keys.get(i)));
+            }
+        }
+        assertEquals(75 - 25, map.size());
+    }
+
+    @Test
+    public void matchesHashMapUnderRandomOperations() {
+        Random random = new Random(42L);
+        LongObjectMap<Long> map = new LongObjectMap<>();
+        Map<Long, Long> expected = new HashMap<>();
+
+        // Keys from a narrow range so puts, replaces and removes keep hitting the same probe chains
+        for (int i = 0; i < 200_000; i++) {
+            long key = BlockKey.pack(random.nextInt(64) - 32, random.nextInt(8), random.nextInt(64) - 32);
+            int op = random.nextInt(3);
+            if (op == 0) {
+                assertEquals(expected.remove(key), map.remove(key));
+            } else {
+                long value = random.nextLong();
+                assertEquals(expected.put(key, value), map.put(key, value));
+            }
+            if (i % 1000 == 0) {
+                assertSameContents(expected, map);
+            }
+        }
+        assertSameContents(expected, map);
+    }
+
+    @Test
+    public void growsPastItsInitialCapacity() {
+        LongObjectMap<Integer> map = new LongObjectMap<>();
+        for (int i = 0; i < 10_000; i++) {
+            map.put(BlockKey.pack(i, i & 255, -i), i);
+        }
+        assertEquals(10_000, map.size());
+        for (int i = 0; i < 10_000; i++) {
+            assertEquals(Integer.valueOf(i), map.get(BlockKey.pack(i, i & 255, -i)));
+        }
+    }
+
+    @Test
+    public void clearRemovesEverything() {
+        LongObjectMap<String> map = new LongObjectMap<>();
+        map.put(1L, "a");
+        map.put(2L, "b");
+        map.clear();
+        assertTrue(map.isEmpty());
+        assertNull(map.get(1L));
+        assertTrue(map.values().isEmpty());
+
+        map.put(1L, "c");
+        assertEquals("c", map.get(1L));
+    }
+
+    @Test
+    public void forEachVisitsEveryEntryWithItsKey() {
+        LongObjectMap<Long> map = new LongObjectMap<>();
+        for (long i = -50; i < 50; i++) {
+            map.put(i, i * 3);
+        }
+        Map<Long, Long> seen = new HashMap<>();
+        map.forEach((key, value) -> seen.put(key, value));
+        assertEquals(100, seen.size());
+        for (Map.Entry<Long, Long> entry : seen.entrySet()) {
+            assertEquals(entry.getKey() * 3, entry.getValue().longValue());
+        }
+    }
+
+    private static void assertSameContents(Map<Long, Long> expected, LongObjectMap<Long> map) {
+        assertEquals(expected.size(), map.size());
+        for (Map.Entry<Long, Long> entry : expected.entrySet()) {
+            assertEquals(entry.getValue(), map.get(entry.getKey()));
+        }
+        Map<Long, Long> actual = new HashMap<>();
+        map.forEach(actual::put);
+        assertEquals(expected, actual);
+    }
+}
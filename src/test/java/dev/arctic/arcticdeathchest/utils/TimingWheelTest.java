@@ -0,0 +1,131 @@
+package dev.arctic.arcticdeathchest.utils;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class TimingWheelTest {
+    private final List<String> fired = new ArrayList<>();
+    private final List<Long> firedAt = new ArrayList<>();
+    private TimingWheel<String> wheel;
+
+    @Before
+    public void setUp() {
+        fired.clear();
+        firedAt.clear();
+        wheel = new TimingWheel<>(8, value -> {
+            fired.add(value);
+            firedAt.add(wheel.getTick());
+        });
+    }
+
+    @Test
+    public void firesOnTheTickOfItsDelay() {
+        wheel.schedule("a", 3);
+        advance(2);
+        assertTrue(fired.isEmpty());
+        advance(1);
+        assertEquals(1, fired.size());
+        assertEquals(Long.valueOf(3), firedAt.get(0));
+        advance(20);
+        assertEquals(1, fired.size());
+    }
+
+    @Test
+    public void delaysBelowOneFireOnTheNextTick() {
+        wheel.schedule("zero", 0);
+        wheel.schedule("negative", -5);
+        advance(1);
+        assertEquals(2, fired.size());
+    }
+
+    @Test
+    public void entriesFurtherThanOneLapWaitForTheirDeadline() {
+        // 8 slots: a delay of 21 passes the entry's slot twice before it is due
+        wheel.schedule("far", 21);
+        wheel.schedule("near", 5);
+        advance(20);
+        assertEquals(1, fired.size());
+        assertEquals("near", fired.get(0));
+        advance(1);
+        assertEquals(2, fired.size());
+        assertEquals("far", fired.get(1));
+        assertEquals(Long.valueOf(21), firedAt.get(1));
+    }
+
+    @Test
+    public void entriesSharingASlotFireOnTheirOwnLap() {
+        wheel.schedule("first", 3);
+        wheel.schedule("second", 11);
+        wheel.schedule("third", 19);
+        advance(19);
+        assertEquals(3, fired.size());
+        assertEquals(Long.valueOf(3), firedAt.get(0));
+        assertEquals(Long.valueOf(11), firedAt.get(1));
+        assertEquals(Long.valueOf(19), firedAt.get(2));
+    }
+
+    @Test
+    public void cancelledEntriesNeverFire() {
+        TimingWheel.Timeout<String> timeout = wheel.schedule("a", 4);
+        wheel.schedule("b", 4);
+        assertTrue(timeout.cancel());
+        assertFalse(timeout.cancel());
+        advance(10);
+        assertEquals(1, fired.size());
+        assertEquals("b", fired.get(0));
+    }
+
+    @Test
+    public void cancelAfterFiringReportsFalse() {
+        TimingWheel.Timeout<String> timeout = wheel.schedule("a", 1);
+        advance(1);
+        assertFalse(timeout.cancel());
+    }
+
+    @Test
+    public void handlersMayScheduleAndCancelOtherEntries() {
+        List<TimingWheel.Timeout<String>> victims = new ArrayList<>();
+        wheel = new TimingWheel<>(8, value -> {
+            fired.add(value);
+            if (value.equals("rearm")) {
+                wheel.schedule("rearmed", 8);
+            } else if (value.equals("canceller")) {
+                victims.get(0).cancel();
+            }
+        });
+        wheel.schedule("rearm", 2);
+        wheel.schedule("canceller", 3);
+        victims.add(wheel.schedule("victim", 5));
+
+        advance(12);
+        assertEquals(Arrays.asList("rearm", "canceller", "rearmed"), fired);
+    }
+
+    @Test
+    public void clearDropsEverythingWithoutFiring() {
+        TimingWheel.Timeout<String> timeout = wheel.schedule("a", 2);
+        wheel.schedule("b", 30);
+        wheel.clear();
+        advance(40);
+        assertTrue(fired.isEmpty());
+        assertFalse(timeout.cancel());
+
+        wheel.schedule("c", 1);
+        advance(1);
+        assertEquals(1, fired.size());
+    }
+
+    private void advance(int ticks) {
+        for (int i = 0; i < ticks; i++) {
+            wheel.advance();
+        }
+    }
+}